@@ -0,0 +1,85 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+
+/**
+ * Deterministic single-section inputs for the benchmarks, sized by the calendar: two labs, theory
+ * subjects of up to five periods filling the rest of the week, a few staff members teaching two
+ * subjects and a quarter of the staff already busy in another section every third period.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Parses a grid parameter such as "6x12" (days x periods per day). */
+    static TimetableCalendar calendar(String grid) {
+        String[] parts = grid.split("x");
+        return TimetableCalendar.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    static SectionInput section(TimetableCalendar calendar) {
+        Map<String, Integer> subjectsWithPeriods = new LinkedHashMap<>();
+        Map<String, Boolean> isLabMap = new HashMap<>();
+        int labLength = Math.min(3, calendar.midPeriod());
+        for (int lab = 1; lab <= 2; lab++) {
+            subjectsWithPeriods.put("Lab " + lab, labLength);
+            isLabMap.put("Lab " + lab, true);
+        }
+        int left = calendar.getCells() - 2 * labLength;
+        int maxTheory = Math.min(5, TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY * calendar.getDays());
+        for (int theory = 1; left > 0; theory++) {
+            int periods = Math.min(maxTheory, left);
+            subjectsWithPeriods.put("Theory " + theory, periods);
+            isLabMap.put("Theory " + theory, false);
+            left -= periods;
+        }
+
+        Map<String, String> subjectStaffMap = new HashMap<>();
+        Map<String, String> shortNames = new HashMap<>();
+        Map<String, String> codes = new HashMap<>();
+        int staffCount = Math.max(1, subjectsWithPeriods.size() * 3 / 4);
+        int next = 0;
+        for (String subject : subjectsWithPeriods.keySet()) {
+            subjectStaffMap.put(subject, "Staff " + (next++ % staffCount));
+            shortNames.put(subject, subject.replace(" ", ""));
+            codes.put(subject, "C" + next);
+        }
+        return new SectionInput("Bench", "A", subjectsWithPeriods, subjectStaffMap, isLabMap, shortNames, codes,
+                calendar);
+    }
+
+    /** The index of the section, with its busy masks loaded from {@link #otherSection}. */
+    static SubjectIndex index(SectionInput input) {
+        SubjectIndex index = input.toIndex();
+        TimeTableGenerator.loadStaffBusy(index, otherSection(input));
+        return index;
+    }
+
+    /** Bookings of another section: a quarter of the staff every third period. */
+    static Map<String, Set<String>> otherSection(SectionInput input) {
+        TimetableCalendar calendar = input.getCalendar();
+        List<String> staff = new ArrayList<>(new TreeSet<>(input.getSubjectStaffMap().values()));
+        Map<String, Set<String>> globalStaffSchedule = new HashMap<>();
+        for (int cell = 0; cell < calendar.getCells(); cell += 3) {
+            int day = cell / calendar.getPeriodsPerDay();
+            int period = cell % calendar.getPeriodsPerDay();
+            Set<String> busy = globalStaffSchedule.computeIfAbsent(
+                    TimeTableGenerator.staffSlotKey(calendar, day, period), k -> new HashSet<>());
+            for (int s = (cell / 3) % 4; s < staff.size(); s += 4) {
+                busy.add(staff.get(s));
+            }
+        }
+        return globalStaffSchedule;
+    }
+
+    /** Constructively seeded, scored schedules. */
+    static List<TimeTableGenerator.Schedule> population(SubjectIndex index, int size, long seed) {
+        List<TimeTableGenerator.Schedule> population =
+                TimeTableGenerator.initializePopulation(index, size, new SplittableRandom(seed));
+        for (TimeTableGenerator.Schedule schedule : population) {
+            schedule.getFitness();
+        }
+        return population;
+    }
+}
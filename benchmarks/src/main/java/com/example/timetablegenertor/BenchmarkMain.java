@@ -0,0 +1,20 @@
+package com.example.timetablegenertor;
+
+import java.util.Arrays;
+
+/**
+ * Entry point of benchmarks.jar: the standard JMH command line with the GC profiler always on,
+ * so every score is reported together with its allocation rate.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] withProfiler = Arrays.copyOf(args, args.length + 2);
+        withProfiler[args.length] = "-prof";
+        withProfiler[args.length + 1] = "gc";
+        org.openjdk.jmh.Main.main(withProfiler);
+    }
+}
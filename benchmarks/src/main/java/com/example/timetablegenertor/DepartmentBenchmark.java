@@ -0,0 +1,46 @@
+package com.example.timetablegenertor;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole departments from {@link WorkloadGenerator}, to check that generation time grows
+ * linearly with the number of sections. Each programme has four years of two sections.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DepartmentBenchmark {
+
+    @Param({"8", "80", "800"})
+    public int sections;
+
+    @Param({"0.2"})
+    public double staffOverlap;
+
+    private Department department;
+    private GAConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        department = new WorkloadGenerator()
+                .setSeed(42L)
+                .setProgrammes(Math.max(1, sections / 8))
+                .setYears(4)
+                .setSectionsPerYear(2)
+                .setStaffOverlap(staffOverlap)
+                .generate();
+        config = new GAConfig().setSeed(42L);
+    }
+
+    @Benchmark
+    public List<TimeTableGenerator.Schedule> generateDepartment() {
+        return TimeTableGenerator.generateDepartment(department, new HashMap<>(), config);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.timetablegenertor;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A complete single-section GA run with the default configuration and a fixed seed, on one
+ * thread so the score does not depend on the machine's core count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneticAlgorithmBenchmark {
+
+    @Param({"5x8", "6x12"})
+    public String grid;
+
+    private SectionInput input;
+    private GAConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = BenchmarkFixtures.section(BenchmarkFixtures.calendar(grid));
+        config = new GAConfig().setSeed(42L).setWorkerCount(1);
+    }
+
+    @Benchmark
+    public double generateScheduleGA() {
+        return TimeTableGenerator.runGA(input, BenchmarkFixtures.otherSection(input), config).getSchedule().getFitness();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.timetablegenertor;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Whole-population steps of a generation: mutation and ranking. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationBenchmarks {
+
+    @Param({"5x8", "6x12"})
+    public String grid;
+
+    @Param({"100", "1000"})
+    public int populationSize;
+
+    private List<TimeTableGenerator.Schedule> population;
+    private SplittableRandom rng;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SubjectIndex index = BenchmarkFixtures.index(BenchmarkFixtures.section(BenchmarkFixtures.calendar(grid)));
+        population = BenchmarkFixtures.population(index, populationSize, 42);
+        rng = new SplittableRandom(42);
+    }
+
+    /** Mutates every schedule in place; the schedules drift between calls but stay valid timetables. */
+    @Benchmark
+    public Object mutate() {
+        TimeTableGenerator.mutate(population, rng);
+        return population;
+    }
+
+    /** Ranks schedules whose fitness is cached, keeping the better half. */
+    @Benchmark
+    public Object selectFittest() {
+        return TimeTableGenerator.selectFittest(population, populationSize / 2);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.timetablegenertor;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-schedule hot paths: scoring, constructive initialization and crossover, on calendars from
+ * the standard week (one-long masks) to grids that need several mask words.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleBenchmarks {
+
+    @Param({"5x8", "6x10", "6x12"})
+    public String grid;
+
+    private SubjectIndex index;
+    private TimeTableGenerator.Schedule schedule;
+    private TimeTableGenerator.Schedule mother;
+    private TimeTableGenerator.Schedule father;
+    private SplittableRandom rng;
+    private int day;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = BenchmarkFixtures.index(BenchmarkFixtures.section(BenchmarkFixtures.calendar(grid)));
+        rng = new SplittableRandom(42);
+        schedule = new TimeTableGenerator.Schedule(TimeTableGenerator.initializeTimetable(index, rng), index);
+        mother = new TimeTableGenerator.Schedule(TimeTableGenerator.initializeTimetable(index, rng), index);
+        father = new TimeTableGenerator.Schedule(TimeTableGenerator.initializeTimetable(index, rng), index);
+    }
+
+    /** Scoring a schedule from scratch, e.g. after the staff busy masks changed. */
+    @Benchmark
+    public double fitnessFull() {
+        schedule.invalidateAll();
+        return schedule.getFitness();
+    }
+
+    /** Re-scoring after a mutation touched one day, the common case inside a generation. */
+    @Benchmark
+    public double fitnessOneDay() {
+        schedule.invalidateDay(day);
+        day = (day + 1) % index.calendar().getDays();
+        return schedule.getFitness();
+    }
+
+    @Benchmark
+    public byte[] initializeTimetable() {
+        return TimeTableGenerator.initializeTimetable(index, rng);
+    }
+
+    @Benchmark
+    public byte[] crossoverTimetables() {
+        return TimeTableGenerator.crossoverTimetables(mother, father, rng).getGenes();
+    }
+}
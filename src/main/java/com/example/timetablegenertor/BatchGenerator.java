@@ -0,0 +1,477 @@
+package com.example.timetablegenertor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Headless batch mode: reads whole departments from CSV files or from the {@code subjects} table
+ * the UI saves, generates every section of each department in parallel and writes the timetables
+ * to the console, to CSV files or to the {@code generated_timetables} table. Run it without any
+ * prompts, e.g. {@code java ... TimeTableGenerator --db timetable.db --out-db timetable.db}.
+ * <p>
+ * A CSV file is one department, with one row per subject of a section:
+ * <pre>
+ * programme,year,section,subject,short_name,code,periods,type,staff
+ * CSE,2nd Year,Section A|Section B,C Programming,CP,CS201,8,theory,Nalina
+ * </pre>
+ * The programme may be empty; several sections separated by {@code |} share the row. A first
+ * line starting with {@code programme} is a header, and blank lines and lines starting with
+ * {@code #} are skipped.
+ * <p>
+ * The exit code is {@link #EXIT_OK} when every timetable was generated without hard violations,
+ * {@link #EXIT_USAGE} for bad arguments or unreadable input and {@link #EXIT_INFEASIBLE} when a
+ * department cannot be timetabled or a generated timetable still has hard violations. A failing
+ * department does not stop the others. Departments are generated one after another, each avoiding
+ * the staff periods booked by those before it.
+ */
+public final class BatchGenerator {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_USAGE = 1;
+    static final int EXIT_INFEASIBLE = 2;
+
+    // The sections the UI generates for every year, used for the subjects table, which has none
+    private static final List<String> DEFAULT_SECTIONS = Arrays.asList("Section A", "Section B");
+
+    private static final String USAGE = String.join("\n",
+            "Usage: TimeTableGenerator [options] [department.csv ...]",
+            "Input (at least one):",
+            "  <department.csv>        sections and subjects of one department",
+            "  --db <file>             the subjects table of a SQLite database saved by the UI",
+            "  --sections <a,b,...>    sections generated for every year of --db (default: Section A,Section B)",
+            "Grid and search:",
+            "  --days <n>              days per week (default 5)",
+            "  --periods <n>           periods per day (default 8)",
+            "  --seed <n>              seed for reproducible timetables",
+            "  --time-limit <ms>       stop each section's search this long after a worker starts it",
+            "  --workers <n>           sections generated at the same time (default: available processors)",
+            "Output (default: print to the console):",
+            "  --out-db <file>         store the timetables in the generated_timetables table of a SQLite database",
+            "  --out-dir <dir>         write one CSV file per section",
+            "Exit codes: 0 done, 1 bad arguments or input, 2 infeasible input or timetables with hard violations");
+
+    private final List<Path> files = new ArrayList<>();
+    private String database;
+    private List<String> sections = DEFAULT_SECTIONS;
+    private int days = TimetableCalendar.STANDARD.getDays();
+    private int periods = TimetableCalendar.STANDARD.getPeriodsPerDay();
+    private final GAConfig config = new GAConfig();
+    private String outDatabase;
+    private Path outDirectory;
+
+    private BatchGenerator() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /** Runs the batch described by the command line and returns the exit code. */
+    static int run(String[] args) {
+        BatchGenerator batch = new BatchGenerator();
+        try {
+            batch.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        return batch.generateAll();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                files.add(Paths.get(arg));
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg + ".");
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--db":
+                    database = value;
+                    break;
+                case "--sections":
+                    sections = new ArrayList<>();
+                    for (String section : value.split(",")) {
+                        if (!section.isBlank()) sections.add(section.trim());
+                    }
+                    if (sections.isEmpty()) {
+                        throw new IllegalArgumentException("--sections needs at least one section.");
+                    }
+                    break;
+                case "--days":
+                    days = parseInt(arg, value);
+                    break;
+                case "--periods":
+                    periods = parseInt(arg, value);
+                    break;
+                case "--seed":
+                    config.setSeed(parseLong(arg, value));
+                    break;
+                case "--time-limit":
+                    config.setTimeLimitMillis(parseLong(arg, value));
+                    break;
+                case "--workers":
+                    config.setWorkerCount(parseInt(arg, value));
+                    break;
+                case "--out-db":
+                    outDatabase = value;
+                    break;
+                case "--out-dir":
+                    outDirectory = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg + ".");
+            }
+        }
+        if (files.isEmpty() && database == null) {
+            throw new IllegalArgumentException("No input given.");
+        }
+        TimetableCalendar.of(days, periods); // fail on a bad grid before any input is read
+    }
+
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " needs a whole number, not '" + value + "'.");
+        }
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " needs a whole number, not '" + value + "'.");
+        }
+    }
+
+    // Generates the departments one after another; each one uses all workers for its sections. The staff
+    // bookings of every department are kept, so staff named in several departments are never booked twice.
+    private int generateAll() {
+        TimetableCalendar calendar = TimetableCalendar.of(days, periods);
+        Map<String, Set<String>> globalStaffSchedule = new HashMap<>();
+        int exitCode = EXIT_OK;
+        List<String> names = new ArrayList<>();
+        List<Department> departments = new ArrayList<>();
+        try {
+            for (Path file : files) {
+                names.add(file.toString());
+                departments.add(readCsv(file, calendar));
+            }
+            if (database != null) {
+                names.add(database);
+                departments.add(readDatabase(database, sections, calendar));
+            }
+        } catch (IOException | SQLException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        for (int i = 0; i < departments.size(); i++) {
+            String name = names.get(i);
+            Department department = departments.get(i);
+            List<TimeTableGenerator.Schedule> schedules;
+            try {
+                schedules = TimeTableGenerator.generateDepartment(department, globalStaffSchedule, config);
+            } catch (IllegalArgumentException e) {
+                // Subjects that cannot fit in a timetable at all, e.g. more periods than the week has
+                System.err.println(name + " is infeasible: " + e.getMessage());
+                exitCode = Math.max(exitCode, EXIT_INFEASIBLE);
+                continue;
+            }
+            int hardViolations = 0;
+            for (int s = 0; s < schedules.size(); s++) {
+                int violations = schedules.get(s).countHardViolations();
+                if (violations > 0) {
+                    System.err.println(department.getSections().get(s) + " still has " + violations
+                            + " hard violations.");
+                }
+                hardViolations += violations;
+            }
+            if (hardViolations > 0) {
+                exitCode = Math.max(exitCode, EXIT_INFEASIBLE);
+            }
+            try {
+                write(department, schedules);
+            } catch (IOException | SQLException e) {
+                System.err.println("Could not write the timetables of " + name + ": " + e.getMessage());
+                exitCode = Math.max(exitCode, EXIT_USAGE);
+            }
+        }
+        return exitCode;
+    }
+
+    static Department readCsv(Path file, TimetableCalendar calendar) throws IOException {
+        Map<String, SectionBuilder> builders = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1).strip();
+            if (line.isEmpty() || line.startsWith("#")
+                    || number == 1 && line.toLowerCase(Locale.ROOT).startsWith("programme")) {
+                continue;
+            }
+            String where = file + ":" + number + ": ";
+            List<String> fields = splitCsv(line);
+            if (fields.size() != 9) {
+                throw new IllegalArgumentException(where + "expected 9 fields, found " + fields.size() + ".");
+            }
+            String programme = fields.get(0).isEmpty() ? null : fields.get(0);
+            String type = fields.get(7).toLowerCase(Locale.ROOT);
+            if (!type.equals("theory") && !type.equals("lab")) {
+                throw new IllegalArgumentException(where + "type must be 'theory' or 'lab', not '" + fields.get(7) + "'.");
+            }
+            int subjectPeriods;
+            try {
+                subjectPeriods = Integer.parseInt(fields.get(6));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(where + "periods must be a whole number, not '" + fields.get(6) + "'.");
+            }
+            for (String section : fields.get(2).split("\\|")) {
+                SectionBuilder builder = builders.computeIfAbsent(programme + "\u0000" + fields.get(1) + "\u0000"
+                        + section.trim(), k -> new SectionBuilder(programme, fields.get(1), section.trim()));
+                try {
+                    builder.add(fields.get(3), fields.get(4), fields.get(5), subjectPeriods, type.equals("lab"),
+                            fields.get(8));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(where + e.getMessage(), e);
+                }
+            }
+        }
+        if (builders.isEmpty()) {
+            throw new IllegalArgumentException(file + " has no subjects.");
+        }
+        Department department = new Department(calendar);
+        for (SectionBuilder builder : builders.values()) {
+            department.addSection(builder.build(calendar));
+        }
+        return department;
+    }
+
+    /** Every year of the subjects table, generated once for each of the given sections. */
+    static Department readDatabase(String database, List<String> sections, TimetableCalendar calendar)
+            throws SQLException {
+        Map<String, List<SectionBuilder>> years = new LinkedHashMap<>();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT year, subject_name, short_name, code, periods, is_lab, staff FROM subjects ORDER BY id")) {
+            while (rows.next()) {
+                String year = rows.getString("year");
+                List<SectionBuilder> builders = years.computeIfAbsent(year, k -> {
+                    List<SectionBuilder> list = new ArrayList<>();
+                    for (String section : sections) {
+                        list.add(new SectionBuilder(null, year, section));
+                    }
+                    return list;
+                });
+                for (SectionBuilder builder : builders) {
+                    builder.add(rows.getString("subject_name"), rows.getString("short_name"), rows.getString("code"),
+                            rows.getInt("periods"), rows.getInt("is_lab") != 0, rows.getString("staff"));
+                }
+            }
+        }
+        if (years.isEmpty()) {
+            throw new IllegalArgumentException(database + " has no subjects.");
+        }
+        Department department = new Department(calendar);
+        for (List<SectionBuilder> builders : years.values()) {
+            for (SectionBuilder builder : builders) {
+                department.addSection(builder.build(calendar));
+            }
+        }
+        return department;
+    }
+
+    private void write(Department department, List<TimeTableGenerator.Schedule> schedules)
+            throws IOException, SQLException {
+        if (outDirectory != null) {
+            writeCsv(outDirectory, department, schedules);
+        }
+        if (outDatabase != null) {
+            writeDatabase(outDatabase, department, schedules);
+        }
+        if (outDirectory == null && outDatabase == null) {
+            for (int i = 0; i < schedules.size(); i++) {
+                TimeTableGenerator.printTimetable(schedules.get(i), department.getSections().get(i).toString());
+            }
+        }
+    }
+
+    // One file per section: a header of periods, then one row of short names per day
+    static void writeCsv(Path directory, Department department, List<TimeTableGenerator.Schedule> schedules)
+            throws IOException {
+        Files.createDirectories(directory);
+        for (int i = 0; i < schedules.size(); i++) {
+            TimeTableGenerator.Schedule schedule = schedules.get(i);
+            String fileName = department.getSections().get(i).toString().replaceAll("[^A-Za-z0-9._-]+", "_") + ".csv";
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(directory.resolve(fileName),
+                    StandardCharsets.UTF_8))) {
+                TimetableCalendar calendar = schedule.getCalendar();
+                StringBuilder header = new StringBuilder("Day");
+                for (int period = 1; period <= calendar.getPeriodsPerDay(); period++) {
+                    header.append(",P").append(period);
+                }
+                out.println(header);
+                Map<String, List<String>> timetable = schedule.getTimetable();
+                for (String day : calendar.getDayNames()) {
+                    StringBuilder row = new StringBuilder(day);
+                    for (String subject : timetable.get(day)) {
+                        row.append(',').append(csvField(subject == null ? "FREE"
+                                : schedule.getSubjectShortNameMap().getOrDefault(subject, subject)));
+                    }
+                    out.println(row);
+                }
+            }
+        }
+    }
+
+    // Same table as the UI's "save generated timetables"; a department with programmes stores them in the year
+    static void writeDatabase(String database, Department department, List<TimeTableGenerator.Schedule> schedules)
+            throws SQLException {
+        String createTableQuery = """
+        CREATE TABLE IF NOT EXISTS generated_timetables (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            year TEXT NOT NULL,
+            section TEXT NOT NULL,
+            day TEXT NOT NULL,
+            period_index INTEGER NOT NULL,
+            subject_code TEXT,
+            staff_name TEXT,
+            UNIQUE(year, section, day, period_index)
+        );
+        """;
+        String insertQuery = """
+        INSERT INTO generated_timetables (year, section, day, period_index, subject_code, staff_name)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON CONFLICT(year, section, day, period_index) DO UPDATE SET
+            subject_code = excluded.subject_code,
+            staff_name = excluded.staff_name;
+        """;
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database)) {
+            connection.setAutoCommit(false);
+            try (Statement createStatement = connection.createStatement();
+                 PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+                createStatement.execute(createTableQuery);
+                for (int i = 0; i < schedules.size(); i++) {
+                    SectionInput input = department.getSections().get(i);
+                    TimeTableGenerator.Schedule schedule = schedules.get(i);
+                    String year = input.getProgramme() == null ? input.getYear()
+                            : input.getProgramme() + " " + input.getYear();
+                    Map<String, List<String>> timetable = schedule.getTimetable();
+                    for (String day : schedule.getCalendar().getDayNames()) {
+                        List<String> daySchedule = timetable.get(day);
+                        for (int periodIndex = 0; periodIndex < daySchedule.size(); periodIndex++) {
+                            String subject = daySchedule.get(periodIndex);
+                            statement.setString(1, year);
+                            statement.setString(2, input.getSection());
+                            statement.setString(3, day);
+                            statement.setInt(4, periodIndex);
+                            statement.setString(5, subject == null ? null : schedule.getSubjectCodeMap().get(subject));
+                            statement.setString(6, subject == null ? null : schedule.getSubjectStaffMap().get(subject));
+                            statement.addBatch();
+                        }
+                    }
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Splits one CSV line; fields may be quoted with double quotes, "" inside quotes is a quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /** Collects the subjects of one section, checked like the console prompts check them. */
+    static final class SectionBuilder {
+        private final String programme;
+        private final String year;
+        private final String section;
+        private final Map<String, Integer> subjectsWithPeriods = new LinkedHashMap<>();
+        private final Map<String, String> subjectStaffMap = new HashMap<>();
+        private final Map<String, Boolean> isLabMap = new HashMap<>();
+        private final Map<String, String> subjectShortNameMap = new HashMap<>();
+        private final Map<String, String> subjectCodeMap = new HashMap<>();
+
+        SectionBuilder(String programme, String year, String section) {
+            if (year == null || year.isBlank() || section.isEmpty()) {
+                throw new IllegalArgumentException("Year and section cannot be empty.");
+            }
+            this.programme = programme;
+            this.year = year;
+            this.section = section;
+        }
+
+        void add(String name, String shortName, String code, int periods, boolean lab, String staff) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Subject name cannot be empty.");
+            }
+            if (subjectsWithPeriods.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate subject " + name + " in " + year + " - " + section + ".");
+            }
+            if (periods <= 0) {
+                throw new IllegalArgumentException("Subject " + name + " needs at least one period.");
+            }
+            if (staff == null || staff.isBlank()) {
+                throw new IllegalArgumentException("Staff name cannot be empty for " + name + ".");
+            }
+            subjectsWithPeriods.put(name, periods);
+            subjectStaffMap.put(name, staff);
+            isLabMap.put(name, lab);
+            // Use the full name if short name or code are missing, as the console does
+            subjectShortNameMap.put(name, shortName == null || shortName.isBlank() ? name : shortName);
+            subjectCodeMap.put(name, code == null || code.isBlank() ? name : code);
+        }
+
+        SectionInput build(TimetableCalendar calendar) {
+            return new SectionInput(programme, year, section, subjectsWithPeriods, subjectStaffMap, isLabMap,
+                    subjectShortNameMap, subjectCodeMap, calendar);
+        }
+    }
+}
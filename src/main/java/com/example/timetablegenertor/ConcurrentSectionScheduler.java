@@ -0,0 +1,325 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates several sections at the same time while keeping staff from being booked in two
+ * sections in the same period.
+ * <p>
+ * Every section evolves its own population on a pool thread. Each {@link #SYNC_INTERVAL}
+ * generations it publishes the staff periods of its current best schedule to a shared
+ * {@link StaffOccupancy} and reads back the periods claimed by every other section; those
+ * become the section's staff busy masks, which the fitness function penalizes. Sections
+ * therefore steer around each other while they run instead of waiting for one another.
+ * When all sections are done, any section whose final best still clashes with the final
+ * schedules of the others is partly re-seeded and re-evolved against them for a short,
+ * bounded number of generations. That repair runs in waves of sections that share no staff:
+ * members of one wave cannot affect each other, so they run in parallel, and a department of
+ * many loosely coupled sections needs only a few waves.
+ */
+final class ConcurrentSectionScheduler {
+
+    // Generations between publishing the current best and refreshing the view of other sections
+    static final int SYNC_INTERVAL = 10;
+
+    // A clashing section is re-evolved for 1/REPAIR_FRACTION of the configured generations
+    private static final int REPAIR_FRACTION = 4;
+
+    private ConcurrentSectionScheduler() {
+    }
+
+    static List<GAResult> generate(List<SectionInput> sections,
+                                  Map<String, Set<String>> globalStaffSchedule,
+                                  GAConfig config) {
+        if (sections.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TimetableCalendar calendar = sections.get(0).getCalendar();
+        for (SectionInput input : sections) {
+            if (!input.getCalendar().equals(calendar)) {
+                throw new IllegalArgumentException("Sections generated together must share one calendar, but "
+                        + input + " uses " + input.getCalendar() + " instead of " + calendar + ".");
+            }
+        }
+        List<Collection<String>> staffByOwner = new ArrayList<>(sections.size());
+        for (SectionInput input : sections) {
+            staffByOwner.add(input.getSubjectStaffMap().values());
+        }
+        StaffOccupancy occupancy = new StaffOccupancy(staffByOwner, calendar.words());
+        RandomStreams streams = RandomStreams.from(config);
+        List<SectionRun> runs = new ArrayList<>(sections.size());
+        for (int owner = 0; owner < sections.size(); owner++) {
+            SectionInput input = sections.get(owner);
+            runs.add(new SectionRun(owner, input, globalStaffSchedule, config, occupancy, streams.stream(owner),
+                    streams.seed()));
+        }
+
+        int threads = Math.max(1, Math.min(sections.size(), config.getWorkerCount()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "section-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            runAll(executor, runs, SectionRun::search);
+            // Repair pass. The sections sharing staff with a wave are final while the wave runs, so a re-run
+            // against them cannot be invalidated again.
+            List<SectionRun> pending = runs;
+            while (!pending.isEmpty()) {
+                Set<StaffOccupancy.Slots> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+                List<SectionRun> wave = new ArrayList<>();
+                List<SectionRun> later = new ArrayList<>();
+                for (SectionRun run : pending) {
+                    if (run.claimStaff(claimed)) {
+                        wave.add(run);
+                    } else {
+                        later.add(run);
+                    }
+                }
+                runAll(executor, wave, SectionRun::settle);
+                pending = later;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<GAResult> results = new ArrayList<>(runs.size());
+        for (SectionRun run : runs) {
+            results.add(run.result());
+        }
+        return results;
+    }
+
+    // Runs the action for every run on the pool and waits for all of them
+    private static void runAll(ExecutorService executor, List<SectionRun> runs, Consumer<SectionRun> action) {
+        List<Callable<Void>> tasks = new ArrayList<>(runs.size());
+        for (SectionRun run : runs) {
+            tasks.add(() -> {
+                action.accept(run);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Concurrent generation was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Concurrent generation failed.", e.getCause());
+        }
+    }
+
+    private static final class SectionRun {
+        private final int owner;
+        private final SectionInput input;
+        private final GAConfig config;
+        private final StaffOccupancy.Slots[] slots; // local staff id -> shared masks, null if no other section uses that staff
+        private final int[] positions;              // local staff id -> this section's position in slots
+        private final RandomGenerator rng;
+        private final long seed;
+        private final SubjectIndex index;
+        private final int words;
+        private final long[] bookedBusy; // [local staff id * words + word] -> periods booked before this run started
+        // Sections already run in parallel, so each one scores its own population on its own thread
+        private final FitnessEvaluator evaluator = FitnessEvaluator.sequential();
+        private final Selection selection;
+        private final HillClimber climber;
+        private final SearchTelemetry telemetry;
+        // Created when the section starts, so a section waiting for a free worker keeps its whole time limit
+        private ConvergenceMonitor monitor;
+        private List<TimeTableGenerator.Schedule> population;
+        private long runNanos; // time spent evolving and repairing, without waiting for a worker
+        private int generation;
+        private StopReason stopReason;
+
+        SectionRun(int owner, SectionInput input, Map<String, Set<String>> globalStaffSchedule,
+                   GAConfig config, StaffOccupancy occupancy, RandomGenerator rng, long seed) {
+            this.owner = owner;
+            this.input = input;
+            this.config = config;
+            this.rng = rng;
+            this.seed = seed;
+            this.index = input.toIndex();
+            index.setFitnessFunction(config.getConstraints().compile());
+            TimeTableGenerator.checkFeasible(input, index);
+            this.selection = new Selection(config);
+            this.climber = new HillClimber(index, config);
+            this.telemetry = SearchTelemetry.of(config, input.toString());
+            TimeTableGenerator.loadStaffBusy(index, globalStaffSchedule);
+            this.words = index.calendar().words();
+            this.bookedBusy = new long[index.staffCount() * words];
+            for (int staff = 0; staff < index.staffCount(); staff++) {
+                for (int word = 0; word < words; word++) {
+                    bookedBusy[staff * words + word] = index.staffBusyWord(staff, word);
+                }
+            }
+            // Resolve the shared masks once, so syncing never looks staff up by name
+            this.slots = new StaffOccupancy.Slots[index.staffCount()];
+            this.positions = new int[index.staffCount()];
+            for (int staff = 0; staff < index.staffCount(); staff++) {
+                StaffOccupancy.Slots staffSlots = occupancy.slots(index.staffName(staff));
+                int position = staffSlots == null ? -1 : staffSlots.position(owner);
+                slots[staff] = position < 0 ? null : staffSlots;
+                positions[staff] = position;
+            }
+        }
+
+        // Initializes and evolves the section; its time limit counts from here, not from when it was queued
+        void search() {
+            long start = System.nanoTime();
+            initialize();
+            evolve();
+            runNanos += System.nanoTime() - start;
+        }
+
+        void initialize() {
+            monitor = new ConvergenceMonitor(config, TimeTableGenerator.fitnessUpperBound(index));
+            telemetry.start();
+            refresh();
+            population = TimeTableGenerator.initializePopulation(index, config.getPopulationSize(), rng);
+            telemetry.lap(SearchPhase.INIT);
+            telemetry.evaluated(population.size());
+            rerank();
+            telemetry.lap(SearchPhase.EVALUATE);
+            publish();
+            telemetry.generation(generation, population);
+        }
+
+        // Evolves until a stopping criterion fires, staying in sync with the other sections
+        void evolve() {
+            stopReason = monitor.check(generation, best());
+            while (stopReason == null) {
+                population = TimeTableGenerator.evolve(population, config.getPopulationSize(), evaluator, selection,
+                        climber, rng, telemetry);
+                generation++;
+                if (generation % SYNC_INTERVAL == 0) {
+                    publish();
+                    if (refresh()) {
+                        // Other sections moved: bring in schedules seeded around their new claims, and measure
+                        // stagnation from the scores against those claims
+                        reseed(config.getPopulationSize() / 4);
+                        monitor.resetBest();
+                    }
+                }
+                telemetry.generation(generation, population);
+                stopReason = monitor.check(generation, best());
+            }
+            publish();
+        }
+
+        // Evolves against the now fixed schedules of the other sections for a bounded number of generations,
+        // or until the run is cancelled or out of time
+        void repair(int generations) {
+            for (int i = 0; i < generations && !monitor.mustStop(); i++) {
+                population = TimeTableGenerator.evolve(population, config.getPopulationSize(), evaluator, selection,
+                        climber, rng, telemetry);
+                generation++;
+                telemetry.generation(generation, population);
+            }
+            publish();
+        }
+
+        // Re-evolves against the final schedules of the sections sharing its staff if it still clashes with them
+        void settle() {
+            if (stopReason == StopReason.CANCELLED) {
+                return;
+            }
+            long start = System.nanoTime();
+            if (refresh()) {
+                rerank();
+            }
+            if (best().countExternalClashes() > 0) {
+                reseed(config.getPopulationSize() / 2);
+                repair(Math.max(1, config.getGenerations() / REPAIR_FRACTION));
+            }
+            if (config.isPolishBest()) {
+                polish();
+            }
+            runNanos += System.nanoTime() - start;
+        }
+
+        // Adds this section's shared staff to claimed and returns true, unless one of them is claimed already
+        boolean claimStaff(Set<StaffOccupancy.Slots> claimed) {
+            for (StaffOccupancy.Slots staffSlots : slots) {
+                if (staffSlots != null && claimed.contains(staffSlots)) {
+                    return false;
+                }
+            }
+            for (StaffOccupancy.Slots staffSlots : slots) {
+                if (staffSlots != null) {
+                    claimed.add(staffSlots);
+                }
+            }
+            return true;
+        }
+
+        // Climbs the best schedule against the final schedules of the sections sharing its staff
+        void polish() {
+            climber.climb(best());
+            publish();
+        }
+
+        GAResult result() {
+            telemetry.finish();
+            return new GAResult(best(), generation, stopReason, runNanos / 1_000_000, seed);
+        }
+
+        // Replaces the worst schedules with fresh ones seeded against the current busy masks, then re-ranks
+        void reseed(int count) {
+            int keep = population.size() - count;
+            List<TimeTableGenerator.Schedule> seeded = new ArrayList<>(population.subList(0, keep));
+            seeded.addAll(TimeTableGenerator.initializePopulation(index, count, rng));
+            population = seeded;
+            rerank();
+        }
+
+        void rerank() {
+            evaluator.evaluate(population);
+            population = TimeTableGenerator.selectFittest(population, config.getPopulationSize());
+        }
+
+        // Publishes the staff periods of the current best schedule
+        private void publish() {
+            long[] masks = best().staffMasks();
+            for (int staff = 0; staff < index.staffCount(); staff++) {
+                if (slots[staff] == null) continue;
+                for (int word = 0; word < words; word++) {
+                    slots[staff].publish(positions[staff], word, masks[staff * words + word]);
+                }
+            }
+        }
+
+        // Reloads the periods claimed by other sections and invalidates cached scores if anything changed
+        boolean refresh() {
+            boolean changed = false;
+            for (int staff = 0; staff < index.staffCount(); staff++) {
+                if (slots[staff] == null) continue;
+                for (int word = 0; word < words; word++) {
+                    long busy = bookedBusy[staff * words + word] | slots[staff].busyExcept(positions[staff], word);
+                    if (busy != index.staffBusyWord(staff, word)) {
+                        index.setStaffBusyWord(staff, word, busy);
+                        changed = true;
+                    }
+                }
+            }
+            if (changed && population != null) {
+                for (TimeTableGenerator.Schedule schedule : population) {
+                    schedule.invalidateAll();
+                }
+            }
+            return changed;
+        }
+
+        TimeTableGenerator.Schedule best() {
+            return population.get(0);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.timetablegenertor;
+
+/**
+ * One rule of the fitness function. A constraint produces a raw score for a schedule, positive
+ * for what it rewards and negative for what it penalizes, which enters the fitness multiplied
+ * by its weight. A hard constraint additionally counts its violations towards
+ * {@link TimeTableGenerator.Schedule#countHardViolations()}. A disabled constraint is left out
+ * of the compiled {@link FitnessFunction} entirely.
+ * <p>
+ * The built-in rules ({@link BuiltIn}) are evaluated together in one fused pass over each day.
+ * Institution-specific rules extend {@link Day} when they only look at one day at a time,
+ * so their scores are cached per day like the built-in ones, or {@link Week} otherwise.
+ * Constraints are added to a {@link ConstraintSet}.
+ */
+abstract class Constraint {
+
+    private final String name;
+    private double weight;
+    private boolean hard;
+    private boolean enabled = true;
+
+    Constraint(String name, double weight, boolean hard) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Constraint name cannot be empty.");
+        }
+        this.name = name;
+        this.hard = hard;
+        setWeight(weight);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    double getWeight() {
+        return weight;
+    }
+
+    /** Multiplier of the raw score; the sign of a reward or penalty is part of the raw score. */
+    Constraint setWeight(double weight) {
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight of " + name + " must be a finite, non-negative number.");
+        }
+        this.weight = weight;
+        return this;
+    }
+
+    boolean isHard() {
+        return hard;
+    }
+
+    Constraint setHard(boolean hard) {
+        this.hard = hard;
+        return this;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    Constraint setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * Upper bound on the raw score of a whole week for the given subjects, used for the early stop at the
+     * fitness upper bound. The default (no bound) turns that stop off while the constraint has a weight.
+     */
+    double upperBound(SubjectIndex index) {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + (hard ? "hard" : "soft") + ", weight " + weight + (enabled ? ")" : ", disabled)");
+    }
+
+    /** A rule that scores each day on its own. */
+    abstract static class Day extends Constraint {
+
+        Day(String name, double weight, boolean hard) {
+            super(name, weight, hard);
+        }
+
+        /** Raw score of one day of the genome (periods day * periodsPerDay onwards). */
+        abstract double score(byte[] genes, int day, SubjectIndex index);
+
+        /** Violations on one day; by default every whole unit of negative raw score counts as one. */
+        int violations(byte[] genes, int day, SubjectIndex index) {
+            return (int) Math.ceil(Math.max(0.0, -score(genes, day, index)));
+        }
+    }
+
+    /** A rule that needs the whole week; it is re-evaluated whenever any day of a schedule changes. */
+    abstract static class Week extends Constraint {
+
+        Week(String name, double weight, boolean hard) {
+            super(name, weight, hard);
+        }
+
+        /** Raw score of the whole genome. */
+        abstract double score(byte[] genes, SubjectIndex index);
+
+        /** Violations in the whole genome; by default every whole unit of negative raw score counts as one. */
+        int violations(byte[] genes, SubjectIndex index) {
+            return (int) Math.ceil(Math.max(0.0, -score(genes, index)));
+        }
+    }
+
+    /**
+     * A rule of the original fitness function. These are not evaluated one by one: the compiled
+     * {@link FitnessFunction} fuses all enabled built-in rules into a single pass over each day.
+     */
+    static final class BuiltIn extends Constraint {
+
+        enum Rule {
+            /** +1 for the right number of periods (-0.5 per period off), +1 per day from the block's day on. */
+            LAB_BLOCKS,
+            /** -1 per period a theory subject has too many or too few; weight 0 by default. */
+            THEORY_PERIODS,
+            /** +1 per subject and day within the daily cap, -1 per period over it. */
+            THEORY_CAP,
+            /** +1 per lab block within one half of the day, -1 per block crossing the middle. */
+            LAB_HALF_DAY,
+            /** -1 per period whose staff already taught earlier that day. */
+            STAFF_REPEAT,
+            /** -1 per period whose staff teaches another section at the same time. */
+            STAFF_BUSY
+        }
+
+        private final Rule rule;
+
+        BuiltIn(String name, Rule rule, double weight, boolean hard) {
+            super(name, weight, hard);
+            this.rule = rule;
+        }
+
+        Rule getRule() {
+            return rule;
+        }
+    }
+}
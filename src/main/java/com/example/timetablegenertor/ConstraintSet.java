@@ -0,0 +1,65 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+
+/**
+ * The constraints a run scores schedules against, looked up by name. {@link #defaults()} holds
+ * the rules of the original fitness function with their original weights, so the fitness of a
+ * schedule is unchanged unless the set is edited. A set is compiled once per run into a
+ * {@link FitnessFunction}; later edits only affect runs started afterwards.
+ */
+final class ConstraintSet {
+
+    static final String LAB_BLOCKS = "lab-blocks";
+    static final String THEORY_PERIODS = "theory-periods";
+    static final String THEORY_CAP = "theory-cap";
+    static final String LAB_HALF_DAY = "lab-half-day";
+    static final String STAFF_REPEAT = "staff-repeat";
+    static final String STAFF_BUSY = "staff-busy";
+
+    private final Map<String, Constraint> constraints = new LinkedHashMap<>();
+
+    /**
+     * The built-in rules. Lab blocks, theory periods, the theory cap and staff busy in another section are
+     * hard: a timetable breaking them cannot be taught. Half-day lab placement and staff repeats are soft.
+     */
+    static ConstraintSet defaults() {
+        return new ConstraintSet()
+                .add(new Constraint.BuiltIn(LAB_BLOCKS, Constraint.BuiltIn.Rule.LAB_BLOCKS, 1.0, true))
+                .add(new Constraint.BuiltIn(THEORY_PERIODS, Constraint.BuiltIn.Rule.THEORY_PERIODS, 0.0, true))
+                .add(new Constraint.BuiltIn(THEORY_CAP, Constraint.BuiltIn.Rule.THEORY_CAP, 0.5, true))
+                .add(new Constraint.BuiltIn(LAB_HALF_DAY, Constraint.BuiltIn.Rule.LAB_HALF_DAY, 0.5, false))
+                .add(new Constraint.BuiltIn(STAFF_REPEAT, Constraint.BuiltIn.Rule.STAFF_REPEAT, 1.0, false))
+                .add(new Constraint.BuiltIn(STAFF_BUSY, Constraint.BuiltIn.Rule.STAFF_BUSY, 3.0, true));
+    }
+
+    ConstraintSet add(Constraint constraint) {
+        if (constraints.putIfAbsent(constraint.getName(), constraint) != null) {
+            throw new IllegalArgumentException("A constraint named " + constraint.getName() + " already exists.");
+        }
+        return this;
+    }
+
+    /** The constraint with the given name, e.g. to change its weight or switch it off. */
+    Constraint get(String name) {
+        Constraint constraint = constraints.get(name);
+        if (constraint == null) {
+            throw new IllegalArgumentException("Unknown constraint: " + name);
+        }
+        return constraint;
+    }
+
+    Collection<Constraint> all() {
+        return Collections.unmodifiableCollection(constraints.values());
+    }
+
+    /** Flattens the enabled constraints into an evaluator. */
+    FitnessFunction compile() {
+        return new FitnessFunction(constraints.values());
+    }
+
+    @Override
+    public String toString() {
+        return constraints.values().toString();
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.timetablegenertor;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Builds initial timetables by construction instead of probing random cells.
+ * <p>
+ * Free periods are tracked as one bit per period in a mask per day, so any {@link TimetableCalendar}
+ * works the same way. Labs are placed first,
+ * longest first, at a random start chosen among the starts where the whole block is free, fits
+ * in one half of the day and does not clash with the lab's staff in other sections. Theory
+ * periods are then spread over the days without ever exceeding the per-day cap, and moved between
+ * days along an augmenting path when a greedy choice runs out of room. Finally each day's theory
+ * periods are dropped into that day's free cells. Every step looks at a bounded number of cells,
+ * so a timetable takes near-constant time and always honours the lab and theory-cap rules.
+ */
+final class ConstructiveInitializer {
+
+    private static final int THEORY_CAP = TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY;
+
+    // Fresh starts tried before the subjects are reported as impossible to place
+    private static final int MAX_ATTEMPTS = 20;
+
+    private ConstructiveInitializer() {
+    }
+
+    /**
+     * Rejects subjects that no timetable can hold, with the reason. Cheap enough to call once per run
+     * before seeding.
+     */
+    static void checkFeasible(SubjectIndex index) {
+        TimetableCalendar calendar = index.calendar();
+        int days = calendar.getDays();
+        int periodsPerDay = calendar.getPeriodsPerDay();
+        int total = 0;
+        for (int subject = 1; subject <= index.size(); subject++) {
+            int periods = index.periods(subject);
+            total += periods;
+            if (index.isLab(subject) && periods > periodsPerDay) {
+                throw new IllegalArgumentException("Lab " + index.name(subject) + " needs " + periods
+                        + " consecutive periods, but a day has only " + periodsPerDay + ".");
+            }
+            if (!index.isLab(subject) && periods > THEORY_CAP * days) {
+                throw new IllegalArgumentException("Theory subject " + index.name(subject) + " needs " + periods
+                        + " periods, but at most " + THEORY_CAP + " a day fit in " + days + " days.");
+            }
+        }
+        if (total > calendar.getCells()) {
+            throw new IllegalArgumentException("The subjects need " + total + " periods, but the week has only "
+                    + calendar.getCells() + ".");
+        }
+    }
+
+    static byte[] build(SubjectIndex index, RandomGenerator rng) {
+        TimetableCalendar calendar = index.calendar();
+        String reason = null;
+        int[] candidates = new int[calendar.getCells()];
+        long[] free = new long[calendar.getDays()]; // day -> free periods of that day
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            byte[] genes = new byte[calendar.getCells()]; // all FREE
+            Arrays.fill(free, calendar.dayMask());
+            // Later attempts drop the soft preferences, in case following them is what made placement fail
+            boolean preferences = attempt < MAX_ATTEMPTS / 2;
+            int misfit = placeLabs(index, genes, free, preferences, candidates, rng);
+            if (misfit != 0) {
+                reason = "Lab " + index.name(misfit) + " has no block of consecutive free periods left";
+                continue;
+            }
+            int unplaced = placeTheory(index, genes, free, preferences, candidates, rng);
+            if (unplaced == 0) {
+                return genes;
+            }
+            reason = "Theory subject " + index.name(unplaced) + " cannot get its " + index.periods(unplaced)
+                    + " periods with at most " + THEORY_CAP + " a day in the periods left after the labs";
+        }
+        throw new IllegalArgumentException(reason + " (gave up after " + MAX_ATTEMPTS + " attempts).");
+    }
+
+    // Places every lab as one block, taking its periods out of free; returns 0, or the id of a lab that does not fit
+    private static int placeLabs(SubjectIndex index, byte[] genes, long[] free, boolean preferences, int[] candidates,
+                                 RandomGenerator rng) {
+        int days = index.calendar().getDays();
+        int periodsPerDay = index.calendar().getPeriodsPerDay();
+        int[] labs = index.labIds().clone();
+        // Longest first: they have the fewest possible starts
+        for (int i = 1; i < labs.length; i++) {
+            int lab = labs[i];
+            int j = i;
+            while (j > 0 && index.periods(labs[j - 1]) < index.periods(lab)) {
+                labs[j] = labs[j - 1];
+                j--;
+            }
+            labs[j] = lab;
+        }
+
+        int midPeriod = index.calendar().midPeriod();
+        for (int lab : labs) {
+            int duration = index.periods(lab);
+            if (duration == 0) continue;
+            long block = (1L << duration) - 1;
+
+            // Pick uniformly among the free starts of the best tier. In order of importance: the staff is
+            // free in other sections, the block stays within a half, and the day has the most free periods
+            // (spreading labs leaves every day room for the theory cap).
+            int bestTier = Integer.MAX_VALUE;
+            int count = 0;
+            for (int day = 0; day < days; day++) {
+                long dayCells = free[day];
+                long busy = index.staffBusyDay(index.staff(lab), day);
+                int dayTier = preferences ? periodsPerDay - Long.bitCount(dayCells) : 0;
+                for (int period = 0; period + duration <= periodsPerDay; period++) {
+                    long cells = block << period;
+                    if ((dayCells & cells) != cells) continue;
+                    boolean inHalf = period + duration <= midPeriod || period >= midPeriod;
+                    boolean staffFree = !preferences || (busy & cells) == 0;
+                    int tier = (staffFree ? 0 : 4 * periodsPerDay) + (inHalf ? 0 : 2 * periodsPerDay) + dayTier;
+                    if (tier < bestTier) {
+                        bestTier = tier;
+                        count = 0;
+                    }
+                    if (tier == bestTier) {
+                        candidates[count++] = day * periodsPerDay + period;
+                    }
+                }
+            }
+            if (count == 0) {
+                return lab;
+            }
+            int chosen = candidates[rng.nextInt(count)];
+            free[chosen / periodsPerDay] &= ~(block << (chosen % periodsPerDay));
+            for (int k = 0; k < duration; k++) {
+                genes[chosen + k] = (byte) lab;
+            }
+        }
+        return 0;
+    }
+
+    // Places every theory period in the free cells; returns 0, or the id of a subject that does not fit
+    private static int placeTheory(SubjectIndex index, byte[] genes, long[] free, boolean preferences,
+                                   int[] candidates, RandomGenerator rng) {
+        int size = index.size();
+        int days = index.calendar().getDays();
+        int periodsPerDay = index.calendar().getPeriodsPerDay();
+        int[] dayFree = new int[days];
+        for (int day = 0; day < days; day++) {
+            dayFree[day] = Long.bitCount(free[day]);
+        }
+        int[] count = new int[(size + 1) * days];               // [subject * days + day] -> periods that day
+        int[] staffDay = new int[index.staffCount() * days];    // [staff * days + day] -> periods that day
+        int[] staffTheory = new int[index.staffCount() * days]; // the theory part of staffDay
+        for (int cell = 0; cell < genes.length; cell++) {
+            int subject = genes[cell] & 0xFF;
+            if (subject != SubjectIndex.FREE) {
+                staffDay[index.staff(subject) * days + cell / periodsPerDay]++;
+            }
+        }
+
+        // Most periods first: they have the least freedom under the daily cap
+        int[] order = new int[size];
+        int subjects = 0;
+        for (int subject = 1; subject <= size; subject++) {
+            if (index.isLab(subject)) continue;
+            int j = subjects++;
+            while (j > 0 && index.periods(order[j - 1]) < index.periods(subject)) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = subject;
+        }
+
+        // Decide how many periods each subject gets on each day
+        for (int i = 0; i < subjects; i++) {
+            int subject = order[i];
+            int staff = index.staff(subject);
+            for (int placed = 0; placed < index.periods(subject); placed++) {
+                // Prefer days that still have a free period in which the staff member does not teach another
+                // section, then days on which they do not teach this section yet, then pick one with
+                // probability proportional to its free periods so the days fill up evenly
+                boolean busyElsewhere = index.hasStaffBusy(staff);
+                int open = 0;  // bit per day with a free period and the subject still under the cap
+                int calm = 0;  // the subset where the staff member is free in other sections for one more period
+                int fresh = 0; // the subset on which the staff member does not teach this section yet
+                for (int day = 0; day < days; day++) {
+                    if (dayFree[day] > 0 && count[subject * days + day] < THEORY_CAP) {
+                        open |= 1 << day;
+                        long calmCells = free[day] & ~index.staffBusyDay(staff, day);
+                        if (!busyElsewhere || Long.bitCount(calmCells) > staffTheory[staff * days + day]) {
+                            calm |= 1 << day;
+                        }
+                        if (staffDay[staff * days + day] == 0) {
+                            fresh |= 1 << day;
+                        }
+                    }
+                }
+                int eligible = open;
+                if (preferences) {
+                    if ((calm & fresh) != 0) {
+                        eligible = calm & fresh;
+                    } else if (calm != 0) {
+                        eligible = calm;
+                    } else if (fresh != 0) {
+                        eligible = fresh;
+                    }
+                }
+                int chosen;
+                if (eligible != 0) {
+                    int weight = 0;
+                    for (int rest = eligible; rest != 0; rest &= rest - 1) {
+                        weight += dayFree[Integer.numberOfTrailingZeros(rest)];
+                    }
+                    int pick = rng.nextInt(weight);
+                    chosen = Integer.numberOfTrailingZeros(eligible);
+                    while (pick >= dayFree[chosen]) {
+                        pick -= dayFree[chosen];
+                        eligible &= eligible - 1;
+                        chosen = Integer.numberOfTrailingZeros(eligible);
+                    }
+                } else {
+                    chosen = makeRoom(index, days, subject, count, dayFree, staffDay, staffTheory);
+                    if (chosen < 0) {
+                        return subject;
+                    }
+                }
+                count[subject * days + chosen]++;
+                staffDay[staff * days + chosen]++;
+                staffTheory[staff * days + chosen]++;
+                dayFree[chosen]--;
+            }
+        }
+
+        // Drop each day's periods into its free cells, avoiding periods where the staff teaches elsewhere.
+        // Subjects whose staff is busy elsewhere that day go first, while they still have a choice.
+        for (int day = 0; day < days; day++) {
+            long dayCells = free[day];
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < subjects; i++) {
+                    int subject = order[i];
+                    long busy = index.staffBusyDay(index.staff(subject), day);
+                    if ((busy != 0) != (pass == 0)) continue;
+                    for (int k = count[subject * days + day]; k > 0; k--) {
+                        long preferred = dayCells & ~busy;
+                        int period = randomBit(preferred != 0 ? preferred : dayCells, rng);
+                        genes[day * periodsPerDay + period] = (byte) subject;
+                        dayCells &= ~(1L << period);
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Frees a period for the subject on a day where it is still under the cap but which is full, by
+     * shifting one period of other subjects along a chain of days that ends at a day with room.
+     * Returns the day that now has room for the subject, or -1 if no chain exists.
+     */
+    private static int makeRoom(SubjectIndex index, int days, int subject, int[] count, int[] dayFree,
+                                int[] staffDay, int[] staffTheory) {
+        int[] previous = new int[days]; // day the period moved to this day came from, -1 for a start day
+        int[] mover = new int[days];    // subject whose period moves into this day
+        int[] queue = new int[days];
+        boolean[] seen = new boolean[days];
+        int head = 0;
+        int tail = 0;
+        for (int day = 0; day < days; day++) {
+            if (count[subject * days + day] < THEORY_CAP) {
+                seen[day] = true;
+                previous[day] = -1;
+                queue[tail++] = day;
+            }
+        }
+        while (head < tail) {
+            int from = queue[head++];
+            for (int other = 1; other <= index.size(); other++) {
+                if (index.isLab(other) || count[other * days + from] == 0) continue;
+                for (int to = 0; to < days; to++) {
+                    if (seen[to] || count[other * days + to] >= THEORY_CAP) continue;
+                    seen[to] = true;
+                    previous[to] = from;
+                    mover[to] = other;
+                    if (dayFree[to] > 0) {
+                        // Shift one period along the chain back to a start day, which then has the free cell
+                        dayFree[to]--;
+                        int day = to;
+                        while (previous[day] >= 0) {
+                            int moved = mover[day];
+                            int source = previous[day];
+                            count[moved * days + day]++;
+                            count[moved * days + source]--;
+                            staffDay[index.staff(moved) * days + day]++;
+                            staffDay[index.staff(moved) * days + source]--;
+                            staffTheory[index.staff(moved) * days + day]++;
+                            staffTheory[index.staff(moved) * days + source]--;
+                            day = source;
+                        }
+                        dayFree[day]++;
+                        return day;
+                    }
+                    queue[tail++] = to;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int randomBit(long mask, RandomGenerator rng) {
+        for (int skip = rng.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.timetablegenertor;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides when a genetic algorithm run can stop, from the best schedule after each generation.
+ * Progress is measured by {@link TimeTableGenerator.Schedule#getScore()}, so fewer hard
+ * violations count as an improvement even at a lower fitness, while the upper bound and the
+ * target fitness only stop a run whose best schedule has no hard violations. The criteria are
+ * checked in order: cancellation, upper bound, target fitness, time limit, stagnation and
+ * finally the generation limit. The time limit counts from the creation of the monitor.
+ */
+final class ConvergenceMonitor {
+
+    // Fitness values are sums of multiples of 0.5, so this only absorbs floating point noise
+    private static final double EPSILON = 1e-9;
+
+    private final int maxGenerations;
+    private final int stagnationGenerations;
+    private final double targetFitness;
+    private final double upperBound;
+    private final BooleanSupplier cancellation;
+    private final boolean timed;
+    private final long deadline; // System.nanoTime() at which the time limit runs out
+
+    private long bestScore = Long.MIN_VALUE;
+    private int lastImprovement;
+
+    ConvergenceMonitor(GAConfig config, double upperBound) {
+        this.maxGenerations = config.getGenerations();
+        this.stagnationGenerations = config.getStagnationGenerations();
+        this.targetFitness = config.getTargetFitness();
+        this.upperBound = config.isStopAtUpperBound() ? upperBound : Double.POSITIVE_INFINITY;
+        this.cancellation = config.getCancellation();
+        this.timed = config.getTimeLimitMillis() > 0;
+        this.deadline = System.nanoTime() + config.getTimeLimitMillis() * 1_000_000;
+    }
+
+    /**
+     * Records the best schedule after the given generation (0 = initial population) and
+     * returns the criterion that fired, or null to keep evolving.
+     */
+    StopReason check(int generation, TimeTableGenerator.Schedule best) {
+        long score = best.getScore();
+        if (score > bestScore) {
+            bestScore = score;
+            lastImprovement = generation;
+        }
+        if (isCancelled()) {
+            return StopReason.CANCELLED;
+        }
+        if (best.countHardViolations() == 0) {
+            double fitness = best.getFitness();
+            if (fitness >= upperBound - EPSILON) {
+                return StopReason.UPPER_BOUND;
+            }
+            if (fitness >= targetFitness - EPSILON) {
+                return StopReason.TARGET_FITNESS;
+            }
+        }
+        if (isOutOfTime()) {
+            return StopReason.TIME_LIMIT;
+        }
+        if (stagnationGenerations > 0 && generation - lastImprovement >= stagnationGenerations) {
+            return StopReason.STAGNATION;
+        }
+        if (generation >= maxGenerations) {
+            return StopReason.GENERATION_LIMIT;
+        }
+        return null;
+    }
+
+    /**
+     * Forgets the best score seen so far, for when the scores of the run's schedules dropped because the
+     * rules changed under it (e.g. new staff bookings of other sections). Stagnation then counts from the
+     * next checked generation instead of from a level the run can no longer reach.
+     */
+    void resetBest() {
+        bestScore = Long.MIN_VALUE;
+    }
+
+    /** True once the run is cancelled or out of time, for loops that run without the other criteria. */
+    boolean mustStop() {
+        return isCancelled() || isOutOfTime();
+    }
+
+    private boolean isCancelled() {
+        return cancellation != null && cancellation.getAsBoolean();
+    }
+
+    private boolean isOutOfTime() {
+        return timed && System.nanoTime() - deadline >= 0;
+    }
+}
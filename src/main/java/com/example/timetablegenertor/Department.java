@@ -0,0 +1,94 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+
+/**
+ * A whole department or college generated in one job: any number of programmes, each with any
+ * number of years, each with any number of sections, all drawing on one pool of staff. A staff
+ * member is the same person wherever their name appears, so they are never booked in two
+ * sections in the same period. All sections share one {@link TimetableCalendar}.
+ * <p>
+ * Generating a department (see {@link TimeTableGenerator#generateDepartment}) costs about the
+ * same per section as generating one year: sections only exchange bookings for the staff they
+ * actually share.
+ */
+public final class Department {
+
+    private final TimetableCalendar calendar;
+    private final List<SectionInput> sections = new ArrayList<>();
+    private final Set<String> labels = new HashSet<>();
+    private final Set<String> staffPool = new LinkedHashSet<>();
+
+    /** A department on the standard 5 x 8 week. */
+    public Department() {
+        this(TimetableCalendar.STANDARD);
+    }
+
+    public Department(TimetableCalendar calendar) {
+        if (calendar == null) {
+            throw new IllegalArgumentException("Calendar cannot be null.");
+        }
+        this.calendar = calendar;
+    }
+
+    /**
+     * Adds one section of the given programme and year, with its own subjects and staff.
+     * Sections of one year usually share subjects but not always staff, so every section
+     * takes its own maps.
+     */
+    public Department addSection(String programme,
+                                 String year,
+                                 String section,
+                                 Map<String, Integer> subjectsWithPeriods,
+                                 Map<String, String> subjectStaffMap,
+                                 Map<String, Boolean> isLabMap,
+                                 Map<String, String> subjectShortNameMap,
+                                 Map<String, String> subjectCodeMap) {
+        return addSection(new SectionInput(programme, year, section, subjectsWithPeriods, subjectStaffMap, isLabMap,
+                subjectShortNameMap, subjectCodeMap, calendar));
+    }
+
+    /**
+     * Adds a section. It must use the department's calendar, and no other section may have the
+     * same programme, year and section.
+     */
+    public Department addSection(SectionInput input) {
+        if (!input.getCalendar().equals(calendar)) {
+            throw new IllegalArgumentException("Section " + input + " uses " + input.getCalendar()
+                    + ", but the department uses " + calendar + ".");
+        }
+        if (!labels.add(input.toString())) {
+            throw new IllegalArgumentException("Section " + input + " was added twice.");
+        }
+        sections.add(input);
+        for (String staff : input.getSubjectStaffMap().values()) {
+            if (staff != null) {
+                staffPool.add(staff);
+            }
+        }
+        return this;
+    }
+
+    /** The sections in the order they were added; schedules are returned in the same order. */
+    public List<SectionInput> getSections() {
+        return Collections.unmodifiableList(sections);
+    }
+
+    /** Every staff member teaching in at least one section. */
+    public Set<String> getStaffPool() {
+        return Collections.unmodifiableSet(staffPool);
+    }
+
+    public TimetableCalendar getCalendar() {
+        return calendar;
+    }
+
+    public int size() {
+        return sections.size();
+    }
+
+    @Override
+    public String toString() {
+        return sections.size() + " sections, " + staffPool.size() + " staff, " + calendar;
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.timetablegenertor;
+
+import java.util.Arrays;
+
+/**
+ * Exact solver for one section: finds a timetable with no hard violations (see
+ * {@link TimeTableGenerator.Schedule#countHardViolations()}) or proves that none exists.
+ * <p>
+ * Labs are placed by backtracking. The domain of each lab is one mask per day of its possible
+ * start periods: the block must be free, stay within the day and avoid periods where the lab's
+ * staff teaches another section. The lab with the fewest starts is branched on first, and starts
+ * that keep the block within half a day are tried first. After every placement the theory
+ * subjects are checked against the periods still free. That check is exact: a max-flow from
+ * subjects through (subject, day) pairs, capped at the daily limit, to the free periods their
+ * staff can take. It prunes any lab placement that leaves no room for the theory, and once all
+ * labs are placed the same flow yields the theory periods.
+ */
+final class ExactSolver {
+
+    private static final int THEORY_CAP = TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY;
+
+    private final SubjectIndex index;
+    private final int days;
+    private final int periodsPerDay;
+    private final int[] labs;
+    private final int[] twin;      // lab position -> earlier position of an identical lab, or -1
+    private final int[] start;     // lab position -> placed start cell, or -1
+    private final int[] theory;    // theory subject ids
+    private final byte[] genes;
+    private final long[] free;     // day -> periods not taken by a placed lab
+    private final long[][] domain; // depth -> per-day starts of the lab branched on at that depth
+    private final long[] scratch;  // per-day starts of the lab being looked at
+    private int depth;
+    private long nodes;
+
+    private ExactSolver(SubjectIndex index) {
+        TimetableCalendar calendar = index.calendar();
+        this.index = index;
+        this.days = calendar.getDays();
+        this.periodsPerDay = calendar.getPeriodsPerDay();
+        this.genes = new byte[calendar.getCells()];
+        this.free = new long[days];
+        Arrays.fill(free, calendar.dayMask());
+        this.scratch = new long[days];
+        this.labs = index.labIds().clone();
+        this.domain = new long[labs.length + 1][days];
+        this.twin = new int[labs.length];
+        this.start = new int[labs.length];
+        Arrays.fill(start, -1);
+        // Labs with the same length and staff are interchangeable: only try them in increasing start order
+        for (int l = 0; l < labs.length; l++) {
+            twin[l] = -1;
+            for (int k = l - 1; k >= 0 && twin[l] < 0; k--) {
+                if (index.periods(labs[k]) == index.periods(labs[l]) && index.staff(labs[k]) == index.staff(labs[l])) {
+                    twin[l] = k;
+                }
+            }
+        }
+        int count = 0;
+        for (int subject = 1; subject <= index.size(); subject++) {
+            if (!index.isLab(subject)) count++;
+        }
+        this.theory = new int[count];
+        count = 0;
+        for (int subject = 1; subject <= index.size(); subject++) {
+            if (!index.isLab(subject)) theory[count++] = subject;
+        }
+    }
+
+    /** Returns a genome with no hard violations, or null if the section has none. */
+    static byte[] solve(SubjectIndex index) {
+        ExactSolver solver = new ExactSolver(index);
+        return solver.placeLabs() ? solver.genes : null;
+    }
+
+    /** Like {@link #solve}, and also reports the number of search nodes visited. */
+    static byte[] solve(SubjectIndex index, long[] nodes) {
+        ExactSolver solver = new ExactSolver(index);
+        boolean solved = solver.placeLabs();
+        nodes[0] = solver.nodes;
+        return solved ? solver.genes : null;
+    }
+
+    private boolean placeLabs() {
+        nodes++;
+        if (!placeTheory(false)) {
+            return false;
+        }
+        // Most constrained first: the unplaced lab with the fewest possible starts
+        int chosen = -1;
+        int chosenCount = 0;
+        long[] chosenStarts = domain[depth];
+        for (int l = 0; l < labs.length; l++) {
+            if (start[l] >= 0 || (twin[l] >= 0 && start[twin[l]] < 0)) continue;
+            int count = starts(l, scratch);
+            if (count == 0) {
+                return false;
+            }
+            if (chosen < 0 || count < chosenCount) {
+                chosen = l;
+                chosenCount = count;
+                System.arraycopy(scratch, 0, chosenStarts, 0, days);
+            }
+        }
+        if (chosen < 0) {
+            return placeTheory(true);
+        }
+
+        int lab = labs[chosen];
+        int duration = index.periods(lab);
+        long block = (1L << duration) - 1;
+        long inHalf = halfDayStarts(duration);
+        depth++;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int day = 0; day < days; day++) {
+                long starts = chosenStarts[day] & (pass == 0 ? inHalf : ~inHalf);
+                for (; starts != 0; starts &= starts - 1) {
+                    int period = Long.numberOfTrailingZeros(starts);
+                    int cell = day * periodsPerDay + period;
+                    start[chosen] = cell;
+                    Arrays.fill(genes, cell, cell + duration, (byte) lab);
+                    free[day] &= ~(block << period);
+                    if (placeLabs()) {
+                        return true;
+                    }
+                    free[day] |= block << period;
+                    Arrays.fill(genes, cell, cell + duration, SubjectIndex.FREE);
+                }
+            }
+        }
+        depth--;
+        start[chosen] = -1;
+        return false;
+    }
+
+    // Fills out with the per-day start periods at which the whole block of the lab at position l is free
+    // and clear of its staff's other sections, after its twin if it has one; returns how many there are
+    private int starts(int l, long[] out) {
+        int lab = labs[l];
+        int duration = index.periods(lab);
+        if (duration == 0 || duration > periodsPerDay) {
+            return 0;
+        }
+        long dayStarts = (1L << (periodsPerDay - duration + 1)) - 1; // the block ends within the day
+        int twinCell = twin[l] >= 0 ? start[twin[l]] : -1;
+        int count = 0;
+        for (int day = 0; day < days; day++) {
+            long open = free[day] & ~index.staffBusyDay(index.staff(lab), day);
+            long starts = open;
+            for (int k = 1; k < duration; k++) {
+                starts &= open >>> k;
+            }
+            starts &= dayStarts;
+            if (twinCell >= 0) {
+                int twinDay = twinCell / periodsPerDay;
+                if (day < twinDay) {
+                    starts = 0;
+                } else if (day == twinDay) {
+                    starts &= -1L << (twinCell % periodsPerDay + 1);
+                }
+            }
+            out[day] = starts;
+            count += Long.bitCount(starts);
+        }
+        return count;
+    }
+
+    // Starts at which a block of the given length stays within one half of the day
+    private long halfDayStarts(int duration) {
+        int midPeriod = index.calendar().midPeriod();
+        long starts = 0;
+        for (int period = 0; period + duration <= periodsPerDay; period++) {
+            if (period + duration <= midPeriod || period >= midPeriod) {
+                starts |= 1L << period;
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Checks whether every theory period fits in the free cells under the daily cap and the staff busy
+     * masks, by max-flow: source -> subject (its periods) -> (subject, day) (the cap) -> free cell the staff
+     * can take (1) -> sink. With assign set, also writes the flow's placement into the genes.
+     */
+    private boolean placeTheory(boolean assign) {
+        int demand = 0;
+        for (int subject : theory) {
+            int periods = index.periods(subject);
+            demand += periods;
+            // Cheap necessary condition before building the flow network
+            int staff = index.staff(subject);
+            int capacity = 0;
+            for (int day = 0; day < days; day++) {
+                capacity += Math.min(THEORY_CAP, Long.bitCount(free[day] & ~index.staffBusyDay(staff, day)));
+            }
+            if (capacity < periods) {
+                return false;
+            }
+        }
+        if (demand == 0) {
+            return true;
+        }
+        int freeCells = 0;
+        for (long cells : free) {
+            freeCells += Long.bitCount(cells);
+        }
+        if (demand > freeCells) {
+            return false;
+        }
+
+        // Nodes: 0 = source, 1 = sink, then subjects, then (subject, day) pairs, then cells
+        int subjects = theory.length;
+        int pairBase = 2 + subjects;
+        int cellBase = pairBase + subjects * days;
+        FlowNetwork network = new FlowNetwork(cellBase + genes.length);
+        for (int i = 0; i < subjects; i++) {
+            int subject = theory[i];
+            int staff = index.staff(subject);
+            network.addEdge(0, 2 + i, index.periods(subject));
+            for (int day = 0; day < days; day++) {
+                long cells = free[day] & ~index.staffBusyDay(staff, day);
+                if (cells == 0) continue;
+                int pair = pairBase + i * days + day;
+                network.addEdge(2 + i, pair, THEORY_CAP);
+                for (; cells != 0; cells &= cells - 1) {
+                    network.addEdge(pair, cellBase + day * periodsPerDay + Long.numberOfTrailingZeros(cells), 1);
+                }
+            }
+        }
+        for (int day = 0; day < days; day++) {
+            for (long cells = free[day]; cells != 0; cells &= cells - 1) {
+                network.addEdge(cellBase + day * periodsPerDay + Long.numberOfTrailingZeros(cells), 1, 1);
+            }
+        }
+        if (network.maxFlow(0, 1) < demand) {
+            return false;
+        }
+        if (assign) {
+            for (int i = 0; i < subjects; i++) {
+                for (int day = 0; day < days; day++) {
+                    int pair = pairBase + i * days + day;
+                    for (int edge = network.first(pair); edge >= 0; edge = network.next(edge)) {
+                        if (network.isForward(edge) && network.flow(edge) > 0) {
+                            genes[network.target(edge) - cellBase] = (byte) theory[i];
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Small adjacency-array flow network with Edmonds-Karp max-flow. */
+    private static final class FlowNetwork {
+        private final int[] head;
+        private int[] to = new int[64];
+        private int[] capacity = new int[64];
+        private int[] nextEdge = new int[64];
+        private int edges;
+
+        FlowNetwork(int nodes) {
+            head = new int[nodes];
+            Arrays.fill(head, -1);
+        }
+
+        // Edge 2k is the forward edge, 2k + 1 its residual
+        void addEdge(int from, int target, int cap) {
+            if (edges + 2 > to.length) {
+                to = Arrays.copyOf(to, to.length * 2);
+                capacity = Arrays.copyOf(capacity, capacity.length * 2);
+                nextEdge = Arrays.copyOf(nextEdge, nextEdge.length * 2);
+            }
+            link(from, target, cap);
+            link(target, from, 0);
+        }
+
+        private void link(int from, int target, int cap) {
+            to[edges] = target;
+            capacity[edges] = cap;
+            nextEdge[edges] = head[from];
+            head[from] = edges++;
+        }
+
+        int first(int node) {
+            return head[node];
+        }
+
+        int next(int edge) {
+            return nextEdge[edge];
+        }
+
+        int target(int edge) {
+            return to[edge];
+        }
+
+        boolean isForward(int edge) {
+            return (edge & 1) == 0;
+        }
+
+        // Flow on a forward edge is the residual capacity of its reverse edge
+        int flow(int edge) {
+            return capacity[edge ^ 1];
+        }
+
+        int maxFlow(int source, int sink) {
+            int total = 0;
+            int[] via = new int[head.length];
+            int[] queue = new int[head.length];
+            while (true) {
+                Arrays.fill(via, -1);
+                int headIndex = 0;
+                int tail = 0;
+                queue[tail++] = source;
+                while (headIndex < tail && via[sink] < 0) {
+                    int node = queue[headIndex++];
+                    for (int edge = head[node]; edge >= 0; edge = nextEdge[edge]) {
+                        int target = to[edge];
+                        if (capacity[edge] > 0 && target != source && via[target] < 0) {
+                            via[target] = edge;
+                            queue[tail++] = target;
+                        }
+                    }
+                }
+                if (via[sink] < 0) {
+                    return total;
+                }
+                // Every path ends in a unit-capacity cell edge, so each augmentation carries one period
+                for (int node = sink; node != source; node = to[via[node] ^ 1]) {
+                    capacity[via[node]]--;
+                    capacity[via[node] ^ 1]++;
+                }
+                total++;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.timetablegenertor;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores a population of schedules, splitting the work over a fork-join pool when
+ * more than one worker is configured. Each schedule is scored by exactly one thread,
+ * so the per-schedule fitness cache needs no synchronization; the join at the end of
+ * {@link #evaluate(List)} publishes the cached scores to the calling thread.
+ * <p>
+ * Without a shared {@link GAConfig#getEvaluationPool() evaluation pool} the evaluator only
+ * starts a pool of its own if the offspring of one generation are enough to split, and only
+ * once the first such batch arrives: with the default population a generation has 10
+ * offspring, which a single thread scores faster than a pool can hand them out.
+ */
+final class FitnessEvaluator implements AutoCloseable {
+
+    // Below this many schedules per task, forking costs more than it saves
+    private static final int MIN_BATCH = 8;
+
+    private final int workers;   // threads of the pool this evaluator starts itself, 1 for none
+    private ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    FitnessEvaluator(GAConfig config) {
+        pool = config.getEvaluationPool();
+        ownsPool = pool == null;
+        int offspring = TimeTableGenerator.parentCount(config.getPopulationSize()) / 2;
+        workers = pool == null && config.getWorkerCount() > 1 && offspring >= 2 * MIN_BATCH
+                ? config.getWorkerCount() : 1;
+    }
+
+    private FitnessEvaluator() {
+        workers = 1;
+        ownsPool = false;
+    }
+
+    /** An evaluator that scores every schedule on the calling thread. */
+    static FitnessEvaluator sequential() {
+        return new FitnessEvaluator();
+    }
+
+    void evaluate(List<TimeTableGenerator.Schedule> schedules) {
+        if (schedules.size() < 2 * MIN_BATCH || pool == null && workers == 1) {
+            for (TimeTableGenerator.Schedule schedule : schedules) {
+                schedule.getFitness();
+            }
+            return;
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(workers);
+        }
+        pool.invoke(new EvaluateTask(schedules, 0, schedules.size()));
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool && pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class EvaluateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<TimeTableGenerator.Schedule> schedules;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(List<TimeTableGenerator.Schedule> schedules, int from, int to) {
+            this.schedules = schedules;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_BATCH) {
+                for (int i = from; i < to; i++) {
+                    schedules.get(i).getFitness();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(schedules, from, mid), new EvaluateTask(schedules, mid, to));
+        }
+    }
+}
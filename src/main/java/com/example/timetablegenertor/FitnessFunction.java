@@ -0,0 +1,167 @@
+package com.example.timetablegenertor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link ConstraintSet} compiled for scoring: the weights and flags of the built-in rules
+ * become plain fields read by the fused per-day pass of {@link TimeTableGenerator.Schedule},
+ * and the enabled custom rules become arrays, so a disabled rule costs nothing and a custom
+ * rule costs one call per re-scored day (or per fitness evaluation for week rules).
+ * Immutable, so one instance can be shared by every schedule and thread of a run.
+ */
+final class FitnessFunction {
+
+    /** The built-in rules with their original weights. */
+    static final FitnessFunction DEFAULT = ConstraintSet.defaults().compile();
+
+    // Built-in rules: weight 0 when disabled; a rule is evaluated if it has a weight or counts hard violations
+    final double labBlocks;
+    final double theoryPeriods;
+    final double theoryCap;
+    final double labHalfDay;
+    final double staffRepeat;
+    final double staffBusy;
+    final boolean evaluatesLabBlocks;
+    final boolean evaluatesTheoryPeriods;
+    final boolean evaluatesTheoryCap;
+    final boolean evaluatesLabHalfDay;
+    final boolean evaluatesStaffRepeat;
+    final boolean evaluatesStaffBusy;
+    final boolean labBlocksHard;
+    final boolean theoryPeriodsHard;
+    final boolean theoryCapHard;
+    final boolean labHalfDayHard;
+    final boolean staffRepeatHard;
+    final boolean staffBusyHard;
+
+    private final Constraint.Day[] dayRules;
+    private final double[] dayWeights;
+    private final boolean[] dayHard;
+    private final Constraint.Week[] weekRules;
+    private final double[] weekWeights;
+    private final boolean[] weekHard;
+
+    FitnessFunction(Collection<Constraint> constraints) {
+        double[] weights = new double[Constraint.BuiltIn.Rule.values().length];
+        boolean[] enabled = new boolean[weights.length];
+        boolean[] hard = new boolean[weights.length];
+        List<Constraint.Day> days = new ArrayList<>();
+        List<Constraint.Week> weeks = new ArrayList<>();
+        for (Constraint constraint : constraints) {
+            if (!constraint.isEnabled()) continue;
+            if (constraint instanceof Constraint.BuiltIn) {
+                int rule = ((Constraint.BuiltIn) constraint).getRule().ordinal();
+                if (enabled[rule]) {
+                    throw new IllegalArgumentException("Built-in rule " + ((Constraint.BuiltIn) constraint).getRule()
+                            + " is enabled twice.");
+                }
+                enabled[rule] = true;
+                weights[rule] = constraint.getWeight();
+                hard[rule] = constraint.isHard();
+            } else if (constraint instanceof Constraint.Day) {
+                days.add((Constraint.Day) constraint);
+            } else if (constraint instanceof Constraint.Week) {
+                weeks.add((Constraint.Week) constraint);
+            } else {
+                throw new IllegalArgumentException("Unsupported constraint type: " + constraint.getClass().getName());
+            }
+        }
+
+        labBlocks = weights[Constraint.BuiltIn.Rule.LAB_BLOCKS.ordinal()];
+        theoryPeriods = weights[Constraint.BuiltIn.Rule.THEORY_PERIODS.ordinal()];
+        theoryCap = weights[Constraint.BuiltIn.Rule.THEORY_CAP.ordinal()];
+        labHalfDay = weights[Constraint.BuiltIn.Rule.LAB_HALF_DAY.ordinal()];
+        staffRepeat = weights[Constraint.BuiltIn.Rule.STAFF_REPEAT.ordinal()];
+        staffBusy = weights[Constraint.BuiltIn.Rule.STAFF_BUSY.ordinal()];
+        labBlocksHard = hard[Constraint.BuiltIn.Rule.LAB_BLOCKS.ordinal()];
+        theoryPeriodsHard = hard[Constraint.BuiltIn.Rule.THEORY_PERIODS.ordinal()];
+        theoryCapHard = hard[Constraint.BuiltIn.Rule.THEORY_CAP.ordinal()];
+        labHalfDayHard = hard[Constraint.BuiltIn.Rule.LAB_HALF_DAY.ordinal()];
+        staffRepeatHard = hard[Constraint.BuiltIn.Rule.STAFF_REPEAT.ordinal()];
+        staffBusyHard = hard[Constraint.BuiltIn.Rule.STAFF_BUSY.ordinal()];
+        evaluatesLabBlocks = labBlocks != 0 || labBlocksHard;
+        evaluatesTheoryPeriods = theoryPeriods != 0 || theoryPeriodsHard;
+        evaluatesTheoryCap = theoryCap != 0 || theoryCapHard;
+        evaluatesLabHalfDay = labHalfDay != 0 || labHalfDayHard;
+        evaluatesStaffRepeat = staffRepeat != 0 || staffRepeatHard;
+        evaluatesStaffBusy = staffBusy != 0 || staffBusyHard;
+
+        dayRules = days.toArray(new Constraint.Day[0]);
+        dayWeights = new double[dayRules.length];
+        dayHard = new boolean[dayRules.length];
+        for (int i = 0; i < dayRules.length; i++) {
+            dayWeights[i] = dayRules[i].getWeight();
+            dayHard[i] = dayRules[i].isHard();
+        }
+        weekRules = weeks.toArray(new Constraint.Week[0]);
+        weekWeights = new double[weekRules.length];
+        weekHard = new boolean[weekRules.length];
+        for (int i = 0; i < weekRules.length; i++) {
+            weekWeights[i] = weekRules[i].getWeight();
+            weekHard[i] = weekRules[i].isHard();
+        }
+    }
+
+    /** True if only built-in rules are enabled, so the effect of a move can be derived from the rules alone. */
+    boolean isBuiltInOnly() {
+        return dayRules.length == 0 && weekRules.length == 0;
+    }
+
+    /** Weighted score of the custom day rules for one day. */
+    double scoreDay(byte[] genes, int day, SubjectIndex index) {
+        double score = 0.0;
+        for (int i = 0; i < dayRules.length; i++) {
+            if (dayWeights[i] != 0) {
+                score += dayWeights[i] * dayRules[i].score(genes, day, index);
+            }
+        }
+        return score;
+    }
+
+    /** Violations of the hard custom day rules on one day. */
+    int violationsDay(byte[] genes, int day, SubjectIndex index) {
+        int violations = 0;
+        for (int i = 0; i < dayRules.length; i++) {
+            if (dayHard[i]) {
+                violations += dayRules[i].violations(genes, day, index);
+            }
+        }
+        return violations;
+    }
+
+    /** Weighted score of the custom week rules. */
+    double scoreWeek(byte[] genes, SubjectIndex index) {
+        double score = 0.0;
+        for (int i = 0; i < weekRules.length; i++) {
+            if (weekWeights[i] != 0) {
+                score += weekWeights[i] * weekRules[i].score(genes, index);
+            }
+        }
+        return score;
+    }
+
+    /** Violations of the hard custom week rules. */
+    int violationsWeek(byte[] genes, SubjectIndex index) {
+        int violations = 0;
+        for (int i = 0; i < weekRules.length; i++) {
+            if (weekHard[i]) {
+                violations += weekRules[i].violations(genes, index);
+            }
+        }
+        return violations;
+    }
+
+    /** Sum of the weighted upper bounds of the custom rules. */
+    double customUpperBound(SubjectIndex index) {
+        double bound = 0.0;
+        for (int i = 0; i < dayRules.length; i++) {
+            if (dayWeights[i] != 0) bound += dayWeights[i] * dayRules[i].upperBound(index);
+        }
+        for (int i = 0; i < weekRules.length; i++) {
+            if (weekWeights[i] != 0) bound += weekWeights[i] * weekRules[i].upperBound(index);
+        }
+        return bound;
+    }
+}
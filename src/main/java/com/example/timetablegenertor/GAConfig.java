@@ -0,0 +1,394 @@
+package com.example.timetablegenertor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tunable settings for one run of {@link TimeTableGenerator#generateScheduleGA}.
+ * The defaults reproduce the original hard-coded values (100 individuals, 1000 generations).
+ */
+public class GAConfig implements Cloneable {
+
+    private int populationSize = 100;
+    private int generations = 1000;
+    private int workerCount = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool evaluationPool; // optional shared pool, takes precedence over workerCount
+    private Long seed;                   // null picks a fresh seed per run
+
+    // Parent selection
+    private SelectionStrategy selectionStrategy = SelectionStrategy.TRUNCATION;
+    private int tournamentSize = 3; // TOURNAMENT only
+
+    // Early termination
+    private int stagnationGenerations = 100; // 0 disables
+    private double targetFitness = Double.POSITIVE_INFINITY;
+    private boolean stopAtUpperBound = true;
+    private long timeLimitMillis;         // 0 disables
+    private BooleanSupplier cancellation; // null: runs cannot be cancelled
+
+    // Island model (generateScheduleIslandGA only)
+    private int islandCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private int migrationInterval = 50; // generations between migrations
+    private int migrantCount = 2;       // best schedules sent to the next island per migration
+
+    // Fitness rules, compiled once per run
+    private ConstraintSet constraints = ConstraintSet.defaults();
+
+    // Memetic polish (HillClimber)
+    private int memeticElites;   // best schedules climbed to a local optimum every generation, 0 disables
+    private boolean polishBest;  // climb the final best schedule
+
+    // Local search (TimetableSolver.simulatedAnnealing / tabuSearch); one round evaluates populationSize moves
+    private double initialTemperature = 2.0;
+    private double coolingRate = 0.99; // temperature factor per round
+    private int tabuTenure = 10;       // iterations a subject may not return to a period it left
+    private int tabuCandidates = 20;   // moves sampled per tabu iteration
+
+    // Telemetry (genetic algorithm runs only)
+    private SearchListener searchListener; // null disables
+    private boolean metricsEnabled;        // publish to the SearchMetrics MBean
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public GAConfig setPopulationSize(int populationSize) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2.");
+        }
+        this.populationSize = populationSize;
+        return this;
+    }
+
+    public int getGenerations() {
+        return generations;
+    }
+
+    public GAConfig setGenerations(int generations) {
+        if (generations < 0) {
+            throw new IllegalArgumentException("Generations cannot be negative.");
+        }
+        this.generations = generations;
+        return this;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Number of threads used to score the population. 1 evaluates on the calling thread.
+     */
+    public GAConfig setWorkerCount(int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1.");
+        }
+        this.workerCount = workerCount;
+        return this;
+    }
+
+    public ForkJoinPool getEvaluationPool() {
+        return evaluationPool;
+    }
+
+    /**
+     * Uses an existing pool for fitness evaluation instead of creating one per run.
+     * The pool is not shut down by the GA.
+     */
+    public GAConfig setEvaluationPool(ForkJoinPool evaluationPool) {
+        this.evaluationPool = evaluationPool;
+        return this;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Seed for all random choices of a run; the same seed and settings replay the same search.
+     * Concurrently generated sections exchange staff bookings as they run, so they only replay
+     * exactly with a worker count of 1. Null (the default) picks a fresh seed for every run.
+     */
+    public GAConfig setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SelectionStrategy getSelectionStrategy() {
+        return selectionStrategy;
+    }
+
+    /**
+     * How parents are picked each generation. Defaults to the best 20% of the population.
+     */
+    public GAConfig setSelectionStrategy(SelectionStrategy selectionStrategy) {
+        if (selectionStrategy == null) {
+            throw new IllegalArgumentException("Selection strategy cannot be null.");
+        }
+        this.selectionStrategy = selectionStrategy;
+        return this;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    public GAConfig setTournamentSize(int tournamentSize) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("Tournament size must be at least 1.");
+        }
+        this.tournamentSize = tournamentSize;
+        return this;
+    }
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    /**
+     * Number of independent sub-populations, each evolved on its own thread.
+     */
+    public GAConfig setIslandCount(int islandCount) {
+        if (islandCount < 1) {
+            throw new IllegalArgumentException("Island count must be at least 1.");
+        }
+        this.islandCount = islandCount;
+        return this;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public GAConfig setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least 1 generation.");
+        }
+        this.migrationInterval = migrationInterval;
+        return this;
+    }
+
+    public int getMigrantCount() {
+        return migrantCount;
+    }
+
+    public GAConfig setMigrantCount(int migrantCount) {
+        if (migrantCount < 0) {
+            throw new IllegalArgumentException("Migrant count cannot be negative.");
+        }
+        this.migrantCount = migrantCount;
+        return this;
+    }
+
+    public int getStagnationGenerations() {
+        return stagnationGenerations;
+    }
+
+    /**
+     * Stops a run once the best fitness has not improved for this many generations. 0 disables the check.
+     */
+    public GAConfig setStagnationGenerations(int stagnationGenerations) {
+        if (stagnationGenerations < 0) {
+            throw new IllegalArgumentException("Stagnation generations cannot be negative.");
+        }
+        this.stagnationGenerations = stagnationGenerations;
+        return this;
+    }
+
+    public double getTargetFitness() {
+        return targetFitness;
+    }
+
+    /**
+     * Stops a run as soon as a schedule reaches this fitness. Disabled by default.
+     */
+    public GAConfig setTargetFitness(double targetFitness) {
+        this.targetFitness = targetFitness;
+        return this;
+    }
+
+    public boolean isStopAtUpperBound() {
+        return stopAtUpperBound;
+    }
+
+    /**
+     * Stops a run when the best schedule reaches the fitness upper bound computed from the subjects.
+     */
+    public GAConfig setStopAtUpperBound(boolean stopAtUpperBound) {
+        this.stopAtUpperBound = stopAtUpperBound;
+        return this;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Stops a run with {@link StopReason#TIME_LIMIT} once it has searched for this long, checked after every
+     * generation (every migration interval for island runs). When several sections are generated together,
+     * each section gets the whole limit, counted from when a worker starts it. 0 (the default) disables the
+     * limit.
+     */
+    public GAConfig setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Time limit cannot be negative.");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+        return this;
+    }
+
+    public BooleanSupplier getCancellation() {
+        return cancellation;
+    }
+
+    /**
+     * Checked wherever the stopping criteria are, so at least once per generation (once per migration interval
+     * for island runs); once it returns true the run stops with {@link StopReason#CANCELLED} and returns its best
+     * schedule so far. Concurrently generated sections also skip their clash repair. It is called from the
+     * threads running the search, so it must be thread-safe.
+     */
+    public GAConfig setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation;
+        return this;
+    }
+
+    public double getInitialTemperature() {
+        return initialTemperature;
+    }
+
+    /**
+     * Starting temperature of simulated annealing: a move that loses this much fitness is accepted
+     * with probability 1/e at the start of the run.
+     */
+    public GAConfig setInitialTemperature(double initialTemperature) {
+        if (!(initialTemperature > 0)) {
+            throw new IllegalArgumentException("Initial temperature must be positive.");
+        }
+        this.initialTemperature = initialTemperature;
+        return this;
+    }
+
+    public double getCoolingRate() {
+        return coolingRate;
+    }
+
+    /**
+     * Factor the simulated annealing temperature is multiplied by after every round.
+     */
+    public GAConfig setCoolingRate(double coolingRate) {
+        if (!(coolingRate > 0 && coolingRate < 1)) {
+            throw new IllegalArgumentException("Cooling rate must be between 0 and 1.");
+        }
+        this.coolingRate = coolingRate;
+        return this;
+    }
+
+    public int getTabuTenure() {
+        return tabuTenure;
+    }
+
+    /**
+     * Number of tabu search iterations during which a subject may not move back into a period it just left.
+     */
+    public GAConfig setTabuTenure(int tabuTenure) {
+        if (tabuTenure < 0) {
+            throw new IllegalArgumentException("Tabu tenure cannot be negative.");
+        }
+        this.tabuTenure = tabuTenure;
+        return this;
+    }
+
+    public int getTabuCandidates() {
+        return tabuCandidates;
+    }
+
+    /**
+     * Number of random moves tabu search scores per iteration before taking the best allowed one.
+     */
+    public GAConfig setTabuCandidates(int tabuCandidates) {
+        if (tabuCandidates < 1) {
+            throw new IllegalArgumentException("Tabu candidates must be at least 1.");
+        }
+        this.tabuCandidates = tabuCandidates;
+        return this;
+    }
+
+    public int getMemeticElites() {
+        return memeticElites;
+    }
+
+    /**
+     * Number of best schedules polished by hill climbing with swap moves after every generation. 0 (the default)
+     * leaves the population to crossover and mutation alone.
+     */
+    public GAConfig setMemeticElites(int memeticElites) {
+        if (memeticElites < 0) {
+            throw new IllegalArgumentException("Memetic elites cannot be negative.");
+        }
+        this.memeticElites = memeticElites;
+        return this;
+    }
+
+    public boolean isPolishBest() {
+        return polishBest;
+    }
+
+    /**
+     * Polishes the best schedule of a genetic algorithm run by hill climbing with swap moves before it is returned.
+     */
+    public GAConfig setPolishBest(boolean polishBest) {
+        this.polishBest = polishBest;
+        return this;
+    }
+
+    public SearchListener getSearchListener() {
+        return searchListener;
+    }
+
+    /**
+     * Called with the statistics of every generation of genetic algorithm runs (single, island and concurrent).
+     * Null (the default) collects none.
+     */
+    public GAConfig setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+        return this;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Adds the statistics of every generation of genetic algorithm runs to the JVM-wide
+     * {@link SearchMetricsMXBean}, which is visible over JMX (for example in JConsole).
+     */
+    public GAConfig setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
+    /** A copy with the same settings, to adjust for one run without touching a config other threads may use. */
+    GAConfig copy() {
+        try {
+            return (GAConfig) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    ConstraintSet getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * Rules schedules are scored against; defaults to {@link ConstraintSet#defaults()}. Package-private like the
+     * constraints themselves, which work on the internal genome.
+     */
+    GAConfig setConstraints(ConstraintSet constraints) {
+        if (constraints == null) {
+            throw new IllegalArgumentException("Constraints cannot be null.");
+        }
+        this.constraints = constraints;
+        return this;
+    }
+}
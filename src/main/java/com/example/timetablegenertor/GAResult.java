@@ -0,0 +1,49 @@
+package com.example.timetablegenertor;
+
+/**
+ * Outcome of one genetic algorithm run: the best schedule and how the run ended.
+ */
+public class GAResult {
+    private final TimeTableGenerator.Schedule schedule;
+    private final int generations;
+    private final StopReason stopReason;
+    private final long elapsedMillis;
+    private final long seed;
+
+    GAResult(TimeTableGenerator.Schedule schedule, int generations, StopReason stopReason, long elapsedMillis,
+             long seed) {
+        this.schedule = schedule;
+        this.generations = generations;
+        this.stopReason = stopReason;
+        this.elapsedMillis = elapsedMillis;
+        this.seed = seed;
+    }
+
+    public TimeTableGenerator.Schedule getSchedule() {
+        return schedule;
+    }
+
+    /** Number of generations evolved before the run stopped. */
+    public int getGenerations() {
+        return generations;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** Seed the run's random streams were derived from; pass it to {@link GAConfig#setSeed} to replay the run. */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return Score.toString(schedule.getScore()) + " after " + generations + " generations (" + stopReason + ", "
+                + elapsedMillis + " ms, seed " + seed + ")";
+    }
+}
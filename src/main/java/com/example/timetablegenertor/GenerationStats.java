@@ -0,0 +1,116 @@
+package com.example.timetablegenertor;
+
+/**
+ * What one generation of a genetic algorithm run looked like and where its time went. Times
+ * and allocations cover only this generation; the fitness values describe the population at
+ * its end.
+ */
+public final class GenerationStats {
+
+    private final String section;
+    private final int generation;
+    private final double bestFitness;
+    private final double meanFitness;
+    private final double worstFitness;
+    private final int bestHardViolations;
+    private final double diversity;
+    private final int evaluations;
+    private final long[] phaseNanos;
+    private final long allocatedBytes;
+    private final long elapsedNanos;
+
+    GenerationStats(String section, int generation, double bestFitness, double meanFitness, double worstFitness,
+                    int bestHardViolations, double diversity, int evaluations, long[] phaseNanos,
+                    long allocatedBytes, long elapsedNanos) {
+        this.section = section;
+        this.generation = generation;
+        this.bestFitness = bestFitness;
+        this.meanFitness = meanFitness;
+        this.worstFitness = worstFitness;
+        this.bestHardViolations = bestHardViolations;
+        this.diversity = diversity;
+        this.evaluations = evaluations;
+        this.phaseNanos = phaseNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** The section (and island, for island runs) the run belongs to. */
+    public String getSection() {
+        return section;
+    }
+
+    /** 0 for the initial population. */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    public double getWorstFitness() {
+        return worstFitness;
+    }
+
+    /** Hard violations of the best schedule (see {@link TimeTableGenerator.Schedule#countHardViolations()}). */
+    public int getBestHardViolations() {
+        return bestHardViolations;
+    }
+
+    /**
+     * Average share of periods in which a schedule differs from the best one: 0 once the
+     * population has converged, close to 1 for unrelated schedules.
+     */
+    public double getDiversity() {
+        return diversity;
+    }
+
+    /** Schedules scored in this generation; hill climbing moves are not counted. */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    public double getEvaluationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : evaluations * 1e9 / elapsedNanos;
+    }
+
+    /** Time spent in one phase of this generation; {@link SearchPhase#INIT} only in generation 0. */
+    public long getPhaseNanos(SearchPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Bytes allocated by the thread evolving the population, or -1 where the JVM cannot measure
+     * it. Scoring on other threads of the evaluation pool is not included.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(section).append(" generation ").append(generation)
+                .append(String.format(": best %.1f, mean %.1f, worst %.1f, diversity %.2f, %.0f evaluations/s",
+                        bestFitness, meanFitness, worstFitness, diversity, getEvaluationsPerSecond()));
+        for (SearchPhase phase : SearchPhase.values()) {
+            if (phaseNanos[phase.ordinal()] > 0) {
+                text.append(", ").append(phase.name().toLowerCase()).append(' ')
+                        .append(phaseNanos[phase.ordinal()] / 1_000).append(" us");
+            }
+        }
+        if (allocatedBytes >= 0) {
+            text.append(", ").append(allocatedBytes / 1024).append(" KB allocated");
+        }
+        return text.toString();
+    }
+}
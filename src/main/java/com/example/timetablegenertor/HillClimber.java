@@ -0,0 +1,283 @@
+package com.example.timetablegenertor;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * First-improvement hill climbing with swap moves, used to polish the elite of a GA population
+ * (memetic step) and the final best schedule.
+ * <p>
+ * A swap exchanges the subjects of two periods that hold no lab, so of the built-in rules only the
+ * theory cap, staff repeats within a day and staff busy elsewhere can change. The climber keeps the
+ * number of periods of every subject and staff member per day, which makes the change of all three
+ * computable in constant time per candidate swap, without re-scoring any day. Custom constraints
+ * can react to any swap, so with those enabled each swap is scored by re-scoring its two days.
+ * A swap improves if it raises the {@link TimeTableGenerator.Schedule#getScore() score}: it removes
+ * hard violations, or keeps their number and gains fitness. A climb sweeps all pairs of periods,
+ * applying every improving swap, until a sweep finds none.
+ * An instance belongs to one population and is not thread-safe.
+ */
+final class HillClimber {
+
+    private static final int THEORY_CAP = TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY;
+    private static final int MAX_SWEEPS = 20;
+    // Fitness values are sums of multiples of 0.5, so this only absorbs floating point noise
+    private static final double EPSILON = 1e-9;
+
+    private final SubjectIndex index;
+    private final FitnessFunction rules;
+    private final int days;
+    private final int periods;
+    private final int cells;
+    private final int eliteCount;
+    private final int subjectStride;
+    private final int staffStride;
+    private final int[] subjectCount; // [day * subjectStride + subject] -> periods on that day
+    private final int[] staffCount;   // [day * staffStride + staff] -> periods on that day
+
+    // Elite schedules already at a local optimum, with the score they had then
+    private final TimeTableGenerator.Schedule[] polished;
+    private final long[] polishedScore;
+
+    HillClimber(SubjectIndex index, GAConfig config) {
+        this.index = index;
+        this.rules = index.fitnessFunction();
+        this.days = index.calendar().getDays();
+        this.periods = index.calendar().getPeriodsPerDay();
+        this.cells = index.calendar().getCells();
+        this.eliteCount = config.getMemeticElites();
+        this.subjectStride = index.size() + 1;
+        this.staffStride = index.staffCount();
+        this.subjectCount = new int[days * subjectStride];
+        this.staffCount = new int[days * staffStride];
+        this.polished = new TimeTableGenerator.Schedule[eliteCount];
+        this.polishedScore = new long[eliteCount];
+    }
+
+    /**
+     * Climbs the best {@link GAConfig#getMemeticElites()} schedules of a best-first population to a local
+     * optimum and keeps the population best-first. Schedules polished in an earlier generation are skipped
+     * unless their score changed since.
+     */
+    void polishElites(List<TimeTableGenerator.Schedule> population) {
+        int count = Math.min(eliteCount, population.size());
+        if (count == 0) {
+            return;
+        }
+        boolean improved = false;
+        for (int i = 0; i < count; i++) {
+            TimeTableGenerator.Schedule schedule = population.get(i);
+            if (wasPolished(schedule)) continue;
+            improved |= climb(schedule);
+        }
+        if (improved) {
+            // Only the elite gained score, so it is still ahead of the rest of the population
+            population.subList(0, count).sort(Selection.BEST_FIRST);
+        }
+        for (int i = 0; i < count; i++) {
+            polished[i] = population.get(i);
+            polishedScore[i] = polished[i].getScore();
+        }
+    }
+
+    private boolean wasPolished(TimeTableGenerator.Schedule schedule) {
+        for (int i = 0; i < polished.length; i++) {
+            if (polished[i] == schedule) {
+                return polishedScore[i] == schedule.getScore();
+            }
+        }
+        return false;
+    }
+
+    /** Applies improving swaps to the schedule until none is left; returns whether it improved. */
+    boolean climb(TimeTableGenerator.Schedule schedule) {
+        byte[] genes = schedule.getGenes();
+        load(genes);
+        int changedDays = 0;
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            boolean improved = false;
+            for (int a = 0; a < cells; a++) {
+                if (isLab(genes[a] & 0xFF)) continue;
+                for (int b = a + 1; b < cells; b++) {
+                    int subjectA = genes[a] & 0xFF;
+                    int subjectB = genes[b] & 0xFF;
+                    if (subjectA == subjectB || isLab(subjectB)) continue;
+                    boolean improves = rules.isBuiltInOnly()
+                            ? improves(a, subjectA, b, subjectB) : rescoredImproves(schedule, a, subjectA, b, subjectB);
+                    if (improves) {
+                        swap(genes, a, subjectA, b, subjectB);
+                        changedDays |= (1 << (a / periods)) | (1 << (b / periods));
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) break;
+        }
+        for (int day = 0; day < days; day++) {
+            if ((changedDays & (1 << day)) != 0) schedule.invalidateDay(day);
+        }
+        return changedDays != 0;
+    }
+
+    // Hard violations decide; fitness only counts when a swap leaves their number unchanged
+    private boolean improves(int a, int subjectA, int b, int subjectB) {
+        int hardDelta = swapHardDelta(a, subjectA, b, subjectB);
+        if (hardDelta != 0) {
+            return hardDelta < 0;
+        }
+        return swapDelta(a, subjectA, b, subjectB) > EPSILON;
+    }
+
+    // Scores a swap by applying it, re-scoring its days and undoing it
+    private boolean rescoredImproves(TimeTableGenerator.Schedule schedule, int a, int subjectA, int b, int subjectB) {
+        byte[] genes = schedule.getGenes();
+        long before = schedule.getScore();
+        genes[a] = (byte) subjectB;
+        genes[b] = (byte) subjectA;
+        schedule.invalidateDay(a / periods);
+        schedule.invalidateDay(b / periods);
+        long after = schedule.getScore();
+        genes[a] = (byte) subjectA;
+        genes[b] = (byte) subjectB;
+        schedule.invalidateDay(a / periods);
+        schedule.invalidateDay(b / periods);
+        return after > before;
+    }
+
+    private void load(byte[] genes) {
+        Arrays.fill(subjectCount, 0);
+        Arrays.fill(staffCount, 0);
+        for (int cell = 0; cell < cells; cell++) {
+            int subject = genes[cell] & 0xFF;
+            if (subject == SubjectIndex.FREE) continue;
+            int day = cell / periods;
+            subjectCount[day * subjectStride + subject]++;
+            staffCount[day * staffStride + index.staff(subject)]++;
+        }
+    }
+
+    /** Fitness change of exchanging the subjects of periods a and b, as the per-day scoring would see it. */
+    double swapDelta(int a, int subjectA, int b, int subjectB) {
+        // Staff busy elsewhere in the period they teach
+        double delta = -rules.staffBusy
+                * (busy(subjectB, a) + busy(subjectA, b) - busy(subjectA, a) - busy(subjectB, b));
+        int dayA = a / periods;
+        int dayB = b / periods;
+        if (dayA == dayB) {
+            return delta;
+        }
+        // Theory cap per subject; the two subjects differ, so their counts move independently
+        delta += rules.theoryCap * (subjectMoveDelta(subjectA, dayA, dayB) + subjectMoveDelta(subjectB, dayB, dayA));
+        // Staff repeats per staff member; apply the first move before scoring the second in case they share staff
+        if (subjectA != SubjectIndex.FREE) {
+            delta += rules.staffRepeat * staffMoveDelta(index.staff(subjectA), dayA, dayB);
+            moveStaff(index.staff(subjectA), dayA, dayB);
+        }
+        if (subjectB != SubjectIndex.FREE) {
+            delta += rules.staffRepeat * staffMoveDelta(index.staff(subjectB), dayB, dayA);
+        }
+        if (subjectA != SubjectIndex.FREE) {
+            moveStaff(index.staff(subjectA), dayB, dayA);
+        }
+        return delta;
+    }
+
+    /** Change in hard violations of exchanging the subjects of periods a and b, mirroring {@link #swapDelta}. */
+    int swapHardDelta(int a, int subjectA, int b, int subjectB) {
+        int delta = 0;
+        if (rules.staffBusyHard) {
+            delta += busy(subjectB, a) + busy(subjectA, b) - busy(subjectA, a) - busy(subjectB, b);
+        }
+        int dayA = a / periods;
+        int dayB = b / periods;
+        if (dayA == dayB) {
+            return delta;
+        }
+        if (rules.theoryCapHard) {
+            delta += subjectMoveOverCap(subjectA, dayA, dayB) + subjectMoveOverCap(subjectB, dayB, dayA);
+        }
+        if (rules.staffRepeatHard) {
+            // Every repeat is a violation, so the change is the negated raw score change
+            if (subjectA != SubjectIndex.FREE) {
+                delta -= (int) staffMoveDelta(index.staff(subjectA), dayA, dayB);
+                moveStaff(index.staff(subjectA), dayA, dayB);
+            }
+            if (subjectB != SubjectIndex.FREE) {
+                delta -= (int) staffMoveDelta(index.staff(subjectB), dayB, dayA);
+            }
+            if (subjectA != SubjectIndex.FREE) {
+                moveStaff(index.staff(subjectA), dayB, dayA);
+            }
+        }
+        return delta;
+    }
+
+    private void swap(byte[] genes, int a, int subjectA, int b, int subjectB) {
+        genes[a] = (byte) subjectB;
+        genes[b] = (byte) subjectA;
+        int dayA = a / periods;
+        int dayB = b / periods;
+        if (dayA == dayB) return;
+        if (subjectA != SubjectIndex.FREE) {
+            subjectCount[dayA * subjectStride + subjectA]--;
+            subjectCount[dayB * subjectStride + subjectA]++;
+            moveStaff(index.staff(subjectA), dayA, dayB);
+        }
+        if (subjectB != SubjectIndex.FREE) {
+            subjectCount[dayB * subjectStride + subjectB]--;
+            subjectCount[dayA * subjectStride + subjectB]++;
+            moveStaff(index.staff(subjectB), dayB, dayA);
+        }
+    }
+
+    private double subjectMoveDelta(int subject, int from, int to) {
+        if (subject == SubjectIndex.FREE) {
+            return 0.0;
+        }
+        int countFrom = subjectCount[from * subjectStride + subject];
+        int countTo = subjectCount[to * subjectStride + subject];
+        return theoryScore(countFrom - 1) - theoryScore(countFrom) + theoryScore(countTo + 1) - theoryScore(countTo);
+    }
+
+    private int subjectMoveOverCap(int subject, int from, int to) {
+        if (subject == SubjectIndex.FREE) {
+            return 0;
+        }
+        int countFrom = subjectCount[from * subjectStride + subject];
+        int countTo = subjectCount[to * subjectStride + subject];
+        return overCap(countFrom - 1) - overCap(countFrom) + overCap(countTo + 1) - overCap(countTo);
+    }
+
+    // Theory cap violations of one subject on one day
+    private static int overCap(int count) {
+        return Math.max(0, count - THEORY_CAP);
+    }
+
+    // Raw theory cap score of one subject on one day
+    private static double theoryScore(int count) {
+        if (count == 0) return 0.0;
+        return count <= THEORY_CAP ? 1.0 : -(count - THEORY_CAP);
+    }
+
+    // Raw staff repeats: -1 for every period of a staff member after their first of the day
+    private double staffMoveDelta(int staff, int from, int to) {
+        double delta = 0.0;
+        if (staffCount[from * staffStride + staff] >= 2) delta += 1.0;
+        if (staffCount[to * staffStride + staff] >= 1) delta -= 1.0;
+        return delta;
+    }
+
+    private void moveStaff(int staff, int from, int to) {
+        staffCount[from * staffStride + staff]--;
+        staffCount[to * staffStride + staff]++;
+    }
+
+    private int busy(int subject, int cell) {
+        if (subject == SubjectIndex.FREE) return 0;
+        return index.isBusy(index.staff(subject), cell) ? 1 : 0;
+    }
+
+    private boolean isLab(int subject) {
+        return subject != SubjectIndex.FREE && index.isLab(subject);
+    }
+}
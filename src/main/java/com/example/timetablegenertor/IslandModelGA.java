@@ -0,0 +1,178 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Island-model genetic algorithm. Each island owns a full population, its own random
+ * stream and its own initial seeding, and is evolved on a separate thread. Every
+ * {@link GAConfig#getMigrationInterval()} generations the islands pause and the best
+ * {@link GAConfig#getMigrantCount()} schedules of each island replace the worst ones
+ * of the next island in a ring. Islands only share schedules at these pauses, so no
+ * locking is needed inside an epoch. The stopping criteria are checked at the same
+ * pauses, against the best schedule over all islands.
+ */
+final class IslandModelGA {
+
+    private IslandModelGA() {
+    }
+
+    /** Runs the islands of one section; island telemetry is labelled with the section. */
+    static GAResult run(SubjectIndex index, GAConfig config, String section) {
+        long startTime = System.nanoTime();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config, TimeTableGenerator.fitnessUpperBound(index));
+        int islandCount = config.getIslandCount();
+        RandomStreams streams = RandomStreams.from(config);
+        List<Island> islands = new ArrayList<>(islandCount);
+        for (int i = 0; i < islandCount; i++) {
+            islands.add(new Island(index, config, streams.stream(i),
+                    SearchTelemetry.of(config, section + " island " + (i + 1))));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(islandCount, runnable -> {
+            Thread thread = new Thread(runnable, "ga-island");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int generation = 0;
+        StopReason stopReason;
+        try {
+            runOnAll(executor, islands, Island::initialize);
+
+            int generations = config.getGenerations();
+            stopReason = monitor.check(generation, best(islands));
+            while (stopReason == null) {
+                int epoch = Math.min(config.getMigrationInterval(), generations - generation);
+                runOnAll(executor, islands, island -> island.evolve(epoch));
+                generation += epoch;
+                stopReason = monitor.check(generation, best(islands));
+                if (stopReason == null) {
+                    migrate(islands, config.getMigrantCount());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (Island island : islands) {
+            island.telemetry.finish();
+        }
+
+        TimeTableGenerator.Schedule best = best(islands);
+        if (config.isPolishBest()) {
+            new HillClimber(index, config).climb(best);
+        }
+        return new GAResult(best, generation, stopReason, (System.nanoTime() - startTime) / 1_000_000,
+                streams.seed());
+    }
+
+    private static TimeTableGenerator.Schedule best(List<Island> islands) {
+        TimeTableGenerator.Schedule best = null;
+        for (Island island : islands) {
+            TimeTableGenerator.Schedule candidate = island.best();
+            if (best == null || candidate.getScore() > best.getScore()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    // Ring migration: island i receives copies of the best schedules of island i - 1
+    private static void migrate(List<Island> islands, int migrantCount) {
+        List<List<TimeTableGenerator.Schedule>> emigrants = new ArrayList<>(islands.size());
+        for (Island island : islands) {
+            emigrants.add(island.emigrants(migrantCount));
+        }
+        for (int i = 0; i < islands.size(); i++) {
+            islands.get(i).receive(emigrants.get((i + islands.size() - 1) % islands.size()));
+        }
+    }
+
+    private static void runOnAll(ExecutorService executor, List<Island> islands,
+                                 Consumer<Island> step) {
+        List<Callable<Void>> tasks = new ArrayList<>(islands.size());
+        for (Island island : islands) {
+            tasks.add(() -> {
+                step.accept(island);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Island evolution was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Island evolution failed.", e.getCause());
+        }
+    }
+
+    private static final class Island {
+        private final SubjectIndex index;
+        private final int populationSize;
+        private final RandomGenerator rng;
+        private final FitnessEvaluator evaluator = FitnessEvaluator.sequential();
+        private final Selection selection;
+        private final HillClimber climber;
+        private final SearchTelemetry telemetry;
+        private List<TimeTableGenerator.Schedule> population;
+        private int generation;
+
+        Island(SubjectIndex index, GAConfig config, RandomGenerator rng, SearchTelemetry telemetry) {
+            this.index = index;
+            this.telemetry = telemetry;
+            this.populationSize = config.getPopulationSize();
+            this.rng = rng;
+            this.selection = new Selection(config);
+            this.climber = new HillClimber(index, config);
+        }
+
+        void initialize() {
+            telemetry.start();
+            population = TimeTableGenerator.initializePopulation(index, populationSize, rng);
+            telemetry.lap(SearchPhase.INIT);
+            evaluator.evaluate(population);
+            telemetry.evaluated(population.size());
+            telemetry.lap(SearchPhase.EVALUATE);
+            population = TimeTableGenerator.selectFittest(population, populationSize);
+            telemetry.lap(SearchPhase.SURVIVE);
+            telemetry.generation(generation, population);
+        }
+
+        void evolve(int generations) {
+            for (int i = 0; i < generations; i++) {
+                population = TimeTableGenerator.evolve(population, populationSize, evaluator, selection, climber, rng,
+                        telemetry);
+                telemetry.generation(++generation, population);
+            }
+        }
+
+        // The population is kept sorted best-first by selectFittest
+        List<TimeTableGenerator.Schedule> emigrants(int count) {
+            List<TimeTableGenerator.Schedule> emigrants = new ArrayList<>(count);
+            for (int i = 0; i < count && i < population.size(); i++) {
+                emigrants.add(population.get(i).copy());
+            }
+            return emigrants;
+        }
+
+        void receive(List<TimeTableGenerator.Schedule> immigrants) {
+            int size = population.size();
+            for (int i = 0; i < immigrants.size() && i < size; i++) {
+                population.set(size - 1 - i, immigrants.get(i));
+            }
+            // Keep the population best-first for selection and for best()
+            population.sort(Selection.BEST_FIRST);
+        }
+
+        TimeTableGenerator.Schedule best() {
+            return population.get(0);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+
+/**
+ * Just enough JSON for {@link TimetableService}. Objects parse to {@link LinkedHashMap}s, arrays
+ * to {@link ArrayList}s, whole numbers to {@link Long}, other numbers to {@link Double}, and
+ * strings, booleans and null to themselves. Writing accepts the same types plus any
+ * {@link Number}, {@link Map} with string keys and {@link Collection}.
+ */
+final class Json {
+
+    // Deeper input is rejected instead of risking a stack overflow on a hostile request
+    private static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /** Parses one JSON value; malformed input is an IllegalArgumentException naming the offset. */
+    static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.value(0);
+        parser.skipWhitespace();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected content after the JSON value");
+        }
+        return value;
+    }
+
+    static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(out, value);
+        return out.toString();
+    }
+
+    private Object value(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("JSON nested too deeply");
+        }
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case '{':
+                return object(depth);
+            case '[':
+                return array(depth);
+            case '"':
+                return string();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                if (c == '-' || c >= '0' && c <= '9') {
+                    return number();
+                }
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object(int depth) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++; // {
+        skipWhitespace();
+        if (peek('}')) {
+            return object;
+        }
+        do {
+            skipWhitespace();
+            if (position >= text.length() || text.charAt(position) != '"') {
+                throw error("Expected a field name");
+            }
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            if (object.put(name, value(depth + 1)) != null) {
+                throw error("Duplicate field \"" + name + "\"");
+            }
+            skipWhitespace();
+        } while (peek(','));
+        expect('}');
+        return object;
+    }
+
+    private List<Object> array(int depth) {
+        List<Object> array = new ArrayList<>();
+        position++; // [
+        skipWhitespace();
+        if (peek(']')) {
+            return array;
+        }
+        do {
+            array.add(value(depth + 1));
+            skipWhitespace();
+        } while (peek(','));
+        expect(']');
+        return array;
+    }
+
+    private String string() {
+        position++; // opening quote
+        StringBuilder out = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return out.toString();
+            }
+            if (c < 0x20) {
+                throw error("Control character in string");
+            }
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (position >= text.length()) break;
+            char escape = text.charAt(position++);
+            switch (escape) {
+                case '"': case '\\': case '/': out.append(escape); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'n': out.append('\n'); break;
+                case 'r': out.append('\r'); break;
+                case 't': out.append('\t'); break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("Incomplete unicode escape");
+                    }
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    throw error("Invalid escape \\" + escape);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object number() {
+        int start = position;
+        boolean integral = true;
+        if (text.charAt(position) == '-') position++;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9') {
+                position++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integral = false;
+                position++;
+            } else {
+                break;
+            }
+        }
+        String number = text.substring(start, position);
+        try {
+            if (integral) {
+                return Long.parseLong(number);
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number " + number);
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, position)) {
+            throw error("Unexpected character '" + text.charAt(position) + "'");
+        }
+        position += word.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+            position++;
+        }
+    }
+
+    // Consumes c if it is next
+    private boolean peek(char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!peek(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + position + ".");
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            out.append(Double.isFinite(number) ? Double.toString(number) : "null");
+        } else if (value instanceof Number) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                writeString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                write(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) out.append(',');
+                first = false;
+                write(out, element);
+            }
+            out.append(']');
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.timetablegenertor;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Moves of the single-solution local searches ({@link SimulatedAnnealing}, {@link TabuSearch}).
+ * Every move keeps each subject's number of periods and every lab as one block within a day,
+ * so starting from a constructive timetable only the placement checks of the fitness change:
+ * <ul>
+ *   <li>a swap exchanges the subjects of two periods that hold no lab (one of them may be free)</li>
+ *   <li>a lab move puts a lab block at another start: on another day it trades places with the
+ *       periods there, within its own day the periods in between slide over to make room</li>
+ * </ul>
+ * A move only rewrites the genes of the days in {@link Move#days}, so it is scored by re-scoring
+ * those days, and undone by copying them back from an unchanged schedule.
+ */
+final class Neighbourhood {
+
+    private static final double LAB_MOVE_SHARE = 0.2; // of all moves, if the section has labs
+    private static final int ATTEMPTS = 8;            // draws before giving up on a move
+
+    /** One move; for a swap from and to are the two periods, for a lab move the old and new block start. */
+    static final class Move {
+        boolean lab;
+        int subject;     // the lab, or the subject leaving from
+        int other;       // swaps only: the subject leaving to
+        int from;
+        int to;
+        int days;        // bitmask of the days the move rewrites
+
+        void copyFrom(Move move) {
+            lab = move.lab;
+            subject = move.subject;
+            other = move.other;
+            from = move.from;
+            to = move.to;
+            days = move.days;
+        }
+    }
+
+    private final SubjectIndex index;
+    private final int days;
+    private final int periods;
+    private final int cells;
+    private final int[] labs;
+    private final byte[] rest; // scratch: a day without the moving lab
+
+    Neighbourhood(SubjectIndex index) {
+        this.index = index;
+        this.days = index.calendar().getDays();
+        this.periods = index.calendar().getPeriodsPerDay();
+        this.cells = index.calendar().getCells();
+        this.labs = index.labIds();
+        this.rest = new byte[periods];
+    }
+
+    /** Draws a random move for the given genes into move; returns false if no valid move was found. */
+    boolean next(byte[] genes, RandomGenerator rng, Move move) {
+        if (labs.length > 0 && rng.nextDouble() < LAB_MOVE_SHARE) {
+            return nextLabMove(genes, rng, move);
+        }
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            int a = rng.nextInt(cells);
+            int b = rng.nextInt(cells);
+            int subjectA = genes[a] & 0xFF;
+            int subjectB = genes[b] & 0xFF;
+            if (subjectA == subjectB || isLab(subjectA) || isLab(subjectB)) continue;
+            move.lab = false;
+            move.subject = subjectA;
+            move.other = subjectB;
+            move.from = a;
+            move.to = b;
+            move.days = (1 << (a / periods)) | (1 << (b / periods));
+            return true;
+        }
+        return false;
+    }
+
+    private boolean nextLabMove(byte[] genes, RandomGenerator rng, Move move) {
+        int lab = labs[rng.nextInt(labs.length)];
+        int duration = index.periods(lab);
+        int from = -1;
+        for (int cell = 0; cell < cells && from < 0; cell++) {
+            if ((genes[cell] & 0xFF) == lab) from = cell;
+        }
+        if (from < 0 || duration > periods) {
+            return false;
+        }
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            int day = rng.nextInt(days);
+            int to = day * periods + rng.nextInt(periods - duration + 1);
+            if (to == from) continue;
+            boolean valid = day == from / periods ? canSlide(genes, lab, duration, from, to) : canTrade(genes, duration, to);
+            if (!valid) continue;
+            move.lab = true;
+            move.subject = lab;
+            move.from = from;
+            move.to = to;
+            move.days = (1 << (from / periods)) | (1 << day);
+            return true;
+        }
+        return false;
+    }
+
+    // Another day: the periods taking the lab's place must not hold (part of) a lab themselves
+    private boolean canTrade(byte[] genes, int duration, int to) {
+        for (int k = 0; k < duration; k++) {
+            if (isLab(genes[to + k] & 0xFF)) return false;
+        }
+        return true;
+    }
+
+    // Same day: the lab must not land inside another lab block
+    private boolean canSlide(byte[] genes, int lab, int duration, int from, int to) {
+        int length = withoutLab(genes, lab, from - from % periods);
+        int position = to % periods;
+        return position == 0 || position == length || rest[position - 1] != rest[position] || !isLab(rest[position] & 0xFF);
+    }
+
+    // Copies the day starting at offset into rest, leaving out the given lab; returns the remaining length
+    private int withoutLab(byte[] genes, int lab, int offset) {
+        int length = 0;
+        for (int i = 0; i < periods; i++) {
+            if ((genes[offset + i] & 0xFF) != lab) rest[length++] = genes[offset + i];
+        }
+        return length;
+    }
+
+    /** Applies a move drawn for the current genes of the schedule and invalidates the days it touches. */
+    void apply(TimeTableGenerator.Schedule schedule, Move move) {
+        byte[] genes = schedule.getGenes();
+        if (!move.lab) {
+            genes[move.from] = (byte) move.other;
+            genes[move.to] = (byte) move.subject;
+        } else if (move.from / periods != move.to / periods) {
+            for (int k = 0; k < index.periods(move.subject); k++) {
+                byte displaced = genes[move.to + k];
+                genes[move.to + k] = genes[move.from + k];
+                genes[move.from + k] = displaced;
+            }
+        } else {
+            int offset = move.from - move.from % periods;
+            int length = withoutLab(genes, move.subject, offset);
+            int position = move.to % periods;
+            int duration = periods - length;
+            System.arraycopy(rest, 0, genes, offset, position);
+            for (int k = 0; k < duration; k++) {
+                genes[offset + position + k] = (byte) move.subject;
+            }
+            System.arraycopy(rest, position, genes, offset + position + duration, length - position);
+        }
+        for (int day = 0; day < days; day++) {
+            if ((move.days & (1 << day)) != 0) schedule.invalidateDay(day);
+        }
+    }
+
+    /** Copies the days a move touched from source into target, with their cached scores. */
+    static void copyDays(TimeTableGenerator.Schedule target, TimeTableGenerator.Schedule source, Move move) {
+        for (int days = move.days; days != 0; days &= days - 1) {
+            target.copyDayFrom(source, Integer.numberOfTrailingZeros(days));
+        }
+    }
+
+    private boolean isLab(int subject) {
+        return subject != SubjectIndex.FREE && index.isLab(subject);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.timetablegenertor;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The random numbers of one run, derived from a single seed. Every population that evolves on
+ * its own thread (the single GA, each island, each concurrently generated section) gets its own
+ * {@link SplittableRandom} stream, so threads never share a generator and a run can be replayed
+ * from its seed.
+ */
+final class RandomStreams {
+
+    private final long seed;
+
+    RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /** Uses the seed from the config, or a fresh one if none is set. */
+    static RandomStreams from(GAConfig config) {
+        Long seed = config.getSeed();
+        return new RandomStreams(seed != null ? seed : ThreadLocalRandom.current().nextLong());
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    /**
+     * The independent stream with the given number. The same seed and number always give the same
+     * stream, whatever order the streams are requested in.
+     */
+    SplittableRandom stream(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Stream id cannot be negative.");
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom stream = root.split();
+        for (int i = 0; i < id; i++) {
+            stream = root.split();
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.timetablegenertor;
+
+/**
+ * Lexicographic score of a schedule packed into one {@code long}: fewer hard violations always
+ * wins, and only schedules with the same number of violations are ranked by their fitness. The
+ * negated violation count fills the upper 32 bits and the fitness, as a fixed-point number with
+ * {@link #SCALE} steps per unit, the lower 32 bits with its sign bit flipped, so a plain
+ * {@code long} comparison orders two scores and a higher score is better.
+ */
+final class Score {
+
+    /** Fixed-point steps per unit of fitness; a power of two, so the default weights (multiples of 0.5) are exact. */
+    static final int SCALE = 1 << 10;
+
+    // Keeps the difference of any two scores within a long
+    private static final int MAX_VIOLATIONS = 1 << 30;
+
+    private Score() {
+    }
+
+    static long pack(int hardViolations, double fitness) {
+        int violations = Math.min(Math.max(hardViolations, 0), MAX_VIOLATIONS);
+        // Fitness beyond about +-2 million saturates; the cast also clamps infinities
+        long fixed = Math.round(Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, fitness * SCALE)));
+        return ((long) -violations << 32) | ((fixed ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    static int hardViolations(long score) {
+        return -(int) (score >> 32);
+    }
+
+    /** The fitness part, rounded to {@link #SCALE} steps per unit. */
+    static double fitness(long score) {
+        return ((int) score ^ Integer.MIN_VALUE) / (double) SCALE;
+    }
+
+    static String toString(long score) {
+        return hardViolations(score) + " hard violations, fitness " + fitness(score);
+    }
+}
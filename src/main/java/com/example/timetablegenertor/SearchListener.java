@@ -0,0 +1,21 @@
+package com.example.timetablegenertor;
+
+/**
+ * Receives the statistics of every generation of a genetic algorithm run, including the initial
+ * population (generation 0). Set it with {@link GAConfig#setSearchListener}.
+ * <p>
+ * It is called on the thread evolving the population, between generations, so it should return
+ * quickly. Island runs and concurrently generated sections call it from several threads at once.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    void onGeneration(GenerationStats stats);
+
+    /**
+     * Called after {@link #onGeneration} whenever the best schedule of the run has changed, with a
+     * copy of it that the listener may keep and read on any thread. Does nothing by default.
+     */
+    default void onNewBest(GenerationStats stats, TimeTableGenerator.Schedule best) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.timetablegenertor;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The JVM-wide {@link SearchMetricsMXBean}, registered with the platform MBean server the first
+ * time a run with metrics enabled starts. Runs on any number of threads add to it without
+ * locking.
+ */
+final class SearchMetrics implements SearchMetricsMXBean {
+
+    static final String OBJECT_NAME = "com.example.timetablegenertor:type=SearchMetrics";
+
+    private final LongAdder runsStarted = new LongAdder();
+    private final LongAdder runsCompleted = new LongAdder();
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[SearchPhase.values().length];
+    private volatile GenerationStats last;
+
+    private SearchMetrics() {
+        for (int phase = 0; phase < phaseNanos.length; phase++) {
+            phaseNanos[phase] = new LongAdder();
+        }
+    }
+
+    static SearchMetrics get() {
+        return Holder.INSTANCE;
+    }
+
+    // Registered on first use, so runs without metrics never touch JMX
+    private static final class Holder {
+        private static final SearchMetrics INSTANCE = register(new SearchMetrics());
+
+        private static SearchMetrics register(SearchMetrics metrics) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                // Still usable in-process, only not visible to JMX clients
+                System.out.println("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+            }
+            return metrics;
+        }
+    }
+
+    void runStarted() {
+        runsStarted.increment();
+    }
+
+    void runCompleted() {
+        runsCompleted.increment();
+    }
+
+    void record(GenerationStats stats) {
+        generations.increment();
+        evaluations.add(stats.getEvaluations());
+        elapsedNanos.add(stats.getElapsedNanos());
+        if (stats.getAllocatedBytes() > 0) {
+            allocatedBytes.add(stats.getAllocatedBytes());
+        }
+        for (SearchPhase phase : SearchPhase.values()) {
+            phaseNanos[phase.ordinal()].add(stats.getPhaseNanos(phase));
+        }
+        last = stats;
+    }
+
+    @Override
+    public long getRunsStarted() {
+        return runsStarted.sum();
+    }
+
+    @Override
+    public long getRunsCompleted() {
+        return runsCompleted.sum();
+    }
+
+    @Override
+    public long getGenerations() {
+        return generations.sum();
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public double getEvaluationsPerSecond() {
+        long nanos = elapsedNanos.sum();
+        return nanos == 0 ? 0 : evaluations.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public long getInitMillis() {
+        return phaseMillis(SearchPhase.INIT);
+    }
+
+    @Override
+    public long getSelectMillis() {
+        return phaseMillis(SearchPhase.SELECT);
+    }
+
+    @Override
+    public long getCrossoverMillis() {
+        return phaseMillis(SearchPhase.CROSSOVER);
+    }
+
+    @Override
+    public long getMutateMillis() {
+        return phaseMillis(SearchPhase.MUTATE);
+    }
+
+    @Override
+    public long getEvaluateMillis() {
+        return phaseMillis(SearchPhase.EVALUATE);
+    }
+
+    @Override
+    public long getSurviveMillis() {
+        return phaseMillis(SearchPhase.SURVIVE);
+    }
+
+    private long phaseMillis(SearchPhase phase) {
+        return phaseNanos[phase.ordinal()].sum() / 1_000_000;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    @Override
+    public String getLastSection() {
+        GenerationStats stats = last;
+        return stats == null ? null : stats.getSection();
+    }
+
+    @Override
+    public int getLastGeneration() {
+        GenerationStats stats = last;
+        return stats == null ? 0 : stats.getGeneration();
+    }
+
+    @Override
+    public double getLastBestFitness() {
+        GenerationStats stats = last;
+        return stats == null ? Double.NaN : stats.getBestFitness();
+    }
+
+    @Override
+    public double getLastMeanFitness() {
+        GenerationStats stats = last;
+        return stats == null ? Double.NaN : stats.getMeanFitness();
+    }
+
+    @Override
+    public double getLastWorstFitness() {
+        GenerationStats stats = last;
+        return stats == null ? Double.NaN : stats.getWorstFitness();
+    }
+
+    @Override
+    public double getLastDiversity() {
+        GenerationStats stats = last;
+        return stats == null ? Double.NaN : stats.getDiversity();
+    }
+
+    @Override
+    public double getLastEvaluationsPerSecond() {
+        GenerationStats stats = last;
+        return stats == null ? 0 : stats.getEvaluationsPerSecond();
+    }
+
+    @Override
+    public void reset() {
+        runsStarted.reset();
+        runsCompleted.reset();
+        generations.reset();
+        evaluations.reset();
+        elapsedNanos.reset();
+        allocatedBytes.reset();
+        for (LongAdder phase : phaseNanos) {
+            phase.reset();
+        }
+        last = null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.timetablegenertor;
+
+/**
+ * Search statistics of this JVM, published over JMX as
+ * {@code com.example.timetablegenertor:type=SearchMetrics} for runs with
+ * {@link GAConfig#setMetricsEnabled metrics enabled}. Totals cover every such run since start-up
+ * or the last {@link #reset()}; the "last" values describe the most recently finished generation
+ * of any of them.
+ */
+public interface SearchMetricsMXBean {
+
+    long getRunsStarted();
+
+    long getRunsCompleted();
+
+    long getGenerations();
+
+    long getEvaluations();
+
+    /** Evaluations per second of one run, averaged over all recorded generations. */
+    double getEvaluationsPerSecond();
+
+    long getInitMillis();
+
+    long getSelectMillis();
+
+    long getCrossoverMillis();
+
+    long getMutateMillis();
+
+    long getEvaluateMillis();
+
+    long getSurviveMillis();
+
+    long getAllocatedBytes();
+
+    String getLastSection();
+
+    int getLastGeneration();
+
+    double getLastBestFitness();
+
+    double getLastMeanFitness();
+
+    double getLastWorstFitness();
+
+    double getLastDiversity();
+
+    double getLastEvaluationsPerSecond();
+
+    void reset();
+}
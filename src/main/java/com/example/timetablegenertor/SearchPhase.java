@@ -0,0 +1,19 @@
+package com.example.timetablegenertor;
+
+/**
+ * The steps of a genetic algorithm generation, as timed by {@link GenerationStats}.
+ */
+public enum SearchPhase {
+    /** Seeding the initial population. */
+    INIT,
+    /** Picking parents. */
+    SELECT,
+    /** Recombining parents into offspring. */
+    CROSSOVER,
+    /** Mutating offspring. */
+    MUTATE,
+    /** Scoring schedules. */
+    EVALUATE,
+    /** Keeping the best schedules and polishing the elite. */
+    SURVIVE
+}
@@ -0,0 +1,139 @@
+package com.example.timetablegenertor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the {@link GenerationStats} of one run and hands them to the configured
+ * {@link SearchListener} and {@link SearchMetrics}. One instance belongs to one run and is only
+ * used by the thread evolving it. With neither a listener nor metrics configured, the run gets
+ * {@link #DISABLED}, whose methods return at once, so an unobserved run pays nothing.
+ */
+final class SearchTelemetry {
+
+    static final SearchTelemetry DISABLED = new SearchTelemetry(null, null, null);
+
+    private final boolean enabled;
+    private final String section;
+    private final SearchListener listener;
+    private final SearchMetrics metrics;
+    private final long[] phaseNanos = new long[SearchPhase.values().length];
+    private long start;
+    private long lap;
+    private long allocationStart;
+    private int evaluations;
+    // Best schedule last handed to the listener, to publish only changes
+    private byte[] publishedGenes;
+    private long publishedScore;
+
+    private SearchTelemetry(String section, SearchListener listener, SearchMetrics metrics) {
+        this.enabled = listener != null || metrics != null;
+        this.section = section;
+        this.listener = listener;
+        this.metrics = metrics;
+    }
+
+    /** Telemetry for one run of the given section (or island), counted as started in the metrics. */
+    static SearchTelemetry of(GAConfig config, String section) {
+        if (config.getSearchListener() == null && !config.isMetricsEnabled()) {
+            return DISABLED;
+        }
+        SearchMetrics metrics = config.isMetricsEnabled() ? SearchMetrics.get() : null;
+        if (metrics != null) {
+            metrics.runStarted();
+        }
+        return new SearchTelemetry(section, config.getSearchListener(), metrics);
+    }
+
+    /** Starts timing a generation. */
+    void start() {
+        if (!enabled) return;
+        start = lap = System.nanoTime();
+        allocationStart = allocatedBytes();
+    }
+
+    /** Charges the time since the previous lap (or the start) to the given phase. */
+    void lap(SearchPhase phase) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lap;
+        lap = now;
+    }
+
+    void evaluated(int count) {
+        evaluations += count;
+    }
+
+    /** Ends the generation: reports it for the given best-first population and resets the counters. */
+    void generation(int generation, List<TimeTableGenerator.Schedule> population) {
+        if (!enabled) return;
+        long elapsed = System.nanoTime() - start;
+        long allocated = Allocations.BEAN == null ? -1 : allocatedBytes() - allocationStart;
+
+        TimeTableGenerator.Schedule best = population.get(0);
+        byte[] bestGenes = best.getGenes();
+        double sum = 0;
+        double worst = Double.POSITIVE_INFINITY;
+        long differences = 0;
+        for (TimeTableGenerator.Schedule schedule : population) {
+            double fitness = schedule.getFitness();
+            sum += fitness;
+            worst = Math.min(worst, fitness);
+            byte[] genes = schedule.getGenes();
+            for (int cell = 0; cell < genes.length; cell++) {
+                if (genes[cell] != bestGenes[cell]) differences++;
+            }
+        }
+        double diversity = population.size() < 2 ? 0
+                : differences / ((double) (population.size() - 1) * bestGenes.length);
+
+        GenerationStats stats = new GenerationStats(section, generation, best.getFitness(), sum / population.size(),
+                worst, best.countHardViolations(), diversity, evaluations, phaseNanos.clone(), allocated, elapsed);
+        Arrays.fill(phaseNanos, 0L);
+        evaluations = 0;
+        if (metrics != null) {
+            metrics.record(stats);
+        }
+        if (listener != null) {
+            listener.onGeneration(stats);
+            if (publishedGenes == null || best.getScore() != publishedScore
+                    || !Arrays.equals(bestGenes, publishedGenes)) {
+                publishedGenes = bestGenes.clone();
+                publishedScore = best.getScore();
+                listener.onNewBest(stats, best.copy());
+            }
+        }
+    }
+
+    /** Counts the run as completed in the metrics. */
+    void finish() {
+        if (metrics != null) {
+            metrics.runCompleted();
+        }
+    }
+
+    private static long allocatedBytes() {
+        return Allocations.BEAN == null ? 0 : Allocations.BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    // Looked up on first use, so unobserved runs never load the management classes
+    private static final class Allocations {
+        // Null where the JVM cannot measure per-thread allocation
+        private static final com.sun.management.ThreadMXBean BEAN = find();
+    }
+
+    private static com.sun.management.ThreadMXBean find() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            if (!allocations.isThreadAllocatedMemoryEnabled()) {
+                allocations.setThreadAllocatedMemoryEnabled(true);
+            }
+            return allocations;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.timetablegenertor;
+
+import java.util.Map;
+
+/**
+ * The inputs for generating one section's timetable: the programme, year and section it belongs to,
+ * the same subject maps that {@link TimeTableGenerator#generateScheduleGA} takes and the
+ * weekly grid the timetable is laid out on.
+ */
+public class SectionInput {
+    private final String programme; // null when the section is not part of a larger department
+    private final String year;
+    private final String section;
+    private final Map<String, Integer> subjectsWithPeriods; // subject -> total weekly periods required
+    private final Map<String, String> subjectStaffMap;      // subject -> staff name
+    private final Map<String, Boolean> isLabMap;            // subject -> is lab?
+    private final Map<String, String> subjectShortNameMap;  // subject -> short name
+    private final Map<String, String> subjectCodeMap;       // subject -> code
+    private final TimetableCalendar calendar;
+
+    public SectionInput(String year,
+                        String section,
+                        Map<String, Integer> subjectsWithPeriods,
+                        Map<String, String> subjectStaffMap,
+                        Map<String, Boolean> isLabMap,
+                        Map<String, String> subjectShortNameMap,
+                        Map<String, String> subjectCodeMap) {
+        this(year, section, subjectsWithPeriods, subjectStaffMap, isLabMap, subjectShortNameMap, subjectCodeMap,
+                TimetableCalendar.STANDARD);
+    }
+
+    public SectionInput(String year,
+                        String section,
+                        Map<String, Integer> subjectsWithPeriods,
+                        Map<String, String> subjectStaffMap,
+                        Map<String, Boolean> isLabMap,
+                        Map<String, String> subjectShortNameMap,
+                        Map<String, String> subjectCodeMap,
+                        TimetableCalendar calendar) {
+        this(null, year, section, subjectsWithPeriods, subjectStaffMap, isLabMap, subjectShortNameMap, subjectCodeMap,
+                calendar);
+    }
+
+    public SectionInput(String programme,
+                        String year,
+                        String section,
+                        Map<String, Integer> subjectsWithPeriods,
+                        Map<String, String> subjectStaffMap,
+                        Map<String, Boolean> isLabMap,
+                        Map<String, String> subjectShortNameMap,
+                        Map<String, String> subjectCodeMap,
+                        TimetableCalendar calendar) {
+        if (calendar == null) {
+            throw new IllegalArgumentException("Calendar cannot be null.");
+        }
+        this.programme = programme;
+        this.year = year;
+        this.section = section;
+        this.subjectsWithPeriods = subjectsWithPeriods;
+        this.subjectStaffMap = subjectStaffMap;
+        this.isLabMap = isLabMap;
+        this.subjectShortNameMap = subjectShortNameMap;
+        this.subjectCodeMap = subjectCodeMap;
+        this.calendar = calendar;
+    }
+
+    public String getProgramme() {
+        return programme;
+    }
+
+    public String getYear() {
+        return year;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public Map<String, Integer> getSubjectsWithPeriods() {
+        return subjectsWithPeriods;
+    }
+
+    public Map<String, String> getSubjectStaffMap() {
+        return subjectStaffMap;
+    }
+
+    public Map<String, Boolean> getIsLabMap() {
+        return isLabMap;
+    }
+
+    public Map<String, String> getSubjectShortNameMap() {
+        return subjectShortNameMap;
+    }
+
+    public Map<String, String> getSubjectCodeMap() {
+        return subjectCodeMap;
+    }
+
+    public TimetableCalendar getCalendar() {
+        return calendar;
+    }
+
+    SubjectIndex toIndex() {
+        return new SubjectIndex(subjectsWithPeriods, subjectStaffMap, isLabMap, subjectShortNameMap, subjectCodeMap,
+                calendar);
+    }
+
+    @Override
+    public String toString() {
+        return programme == null ? year + " - " + section : programme + " " + year + " - " + section;
+    }
+}
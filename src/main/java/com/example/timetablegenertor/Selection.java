@@ -0,0 +1,123 @@
+package com.example.timetablegenertor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Parent and survivor selection for one population, with all working storage reused from
+ * generation to generation.
+ * <p>
+ * Schedules are ordered by their {@link TimeTableGenerator.Schedule#getScore() score}, so fewer hard
+ * violations come first and fitness only breaks ties. Parents are picked by the configured
+ * {@link SelectionStrategy} over a score array copied once per generation. Survivors are chosen by merging the population, which is kept
+ * best-first, with the sorted offspring, so a generation costs O(n + m log m) for n schedules
+ * and m offspring instead of two full sorts. The population lists are double-buffered: the list
+ * passed to {@link #survivors} is recycled for the next generation, so callers must only keep
+ * the returned list. An instance belongs to one population and is not thread-safe.
+ */
+final class Selection {
+
+    static final Comparator<TimeTableGenerator.Schedule> BEST_FIRST =
+            Comparator.comparingLong(TimeTableGenerator.Schedule::getScore).reversed();
+
+    private final SelectionStrategy strategy;
+    private final int tournamentSize;
+
+    private long[] scores = new long[0];
+    private double[] wheel = new double[0];
+    private int[] positions = new int[0];
+    private int[] scratch = new int[0];
+    private final List<TimeTableGenerator.Schedule> parents = new ArrayList<>();
+    private final List<TimeTableGenerator.Schedule> offspring = new ArrayList<>();
+    private List<TimeTableGenerator.Schedule> spare = new ArrayList<>();
+
+    Selection(GAConfig config) {
+        this.strategy = config.getSelectionStrategy();
+        this.tournamentSize = config.getTournamentSize();
+    }
+
+    /** Picks count parents from the scored population; consecutive entries are paired for crossover. */
+    List<TimeTableGenerator.Schedule> parents(List<TimeTableGenerator.Schedule> population, int count,
+                                              RandomGenerator rng) {
+        int size = population.size();
+        ensureCapacity(size, Math.max(size, count));
+        for (int i = 0; i < size; i++) {
+            scores[i] = population.get(i).getScore();
+        }
+        strategy.select(scores, size, positions, count, scratch, wheel, tournamentSize, rng);
+        parents.clear();
+        for (int i = 0; i < count; i++) {
+            parents.add(population.get(positions[i]));
+        }
+        return parents;
+    }
+
+    /** An empty list for the next generation's offspring. */
+    List<TimeTableGenerator.Schedule> offspring() {
+        offspring.clear();
+        return offspring;
+    }
+
+    /**
+     * Returns the best size schedules of the scored population and offspring, best-first. Ties keep
+     * parents ahead of offspring, as the stable sort of the combined list used to.
+     */
+    List<TimeTableGenerator.Schedule> survivors(List<TimeTableGenerator.Schedule> population,
+                                                List<TimeTableGenerator.Schedule> children, int size) {
+        if (!isBestFirst(population)) {
+            // Only after an outside change such as migration; every generation ends sorted
+            population.sort(BEST_FIRST);
+        }
+        int count = children.size();
+        ensureCapacity(count, count);
+        // Insertion sort of the offspring positions: there are few, and it is stable
+        for (int i = 0; i < count; i++) {
+            long value = children.get(i).getScore();
+            int j = i;
+            while (j > 0 && scores[j - 1] < value) {
+                scores[j] = scores[j - 1];
+                positions[j] = positions[j - 1];
+                j--;
+            }
+            scores[j] = value;
+            positions[j] = i;
+        }
+
+        List<TimeTableGenerator.Schedule> next = spare != population ? spare : new ArrayList<>(size);
+        next.clear();
+        int parent = 0;
+        int child = 0;
+        while (next.size() < size && (parent < population.size() || child < count)) {
+            if (child == count || (parent < population.size()
+                    && population.get(parent).getScore() >= scores[child])) {
+                next.add(population.get(parent++));
+            } else {
+                next.add(children.get(positions[child++]));
+            }
+        }
+        spare = population;
+        return next;
+    }
+
+    private static boolean isBestFirst(List<TimeTableGenerator.Schedule> population) {
+        for (int i = 1; i < population.size(); i++) {
+            if (population.get(i - 1).getScore() < population.get(i).getScore()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int scoresLength, int positionsLength) {
+        if (scores.length < scoresLength) {
+            scores = new long[scoresLength];
+            wheel = new double[scoresLength];
+        }
+        if (positions.length < positionsLength) {
+            positions = new int[positionsLength];
+            scratch = new int[positionsLength];
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.timetablegenertor;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * How the genetic algorithm picks the parents of each generation. Every strategy works on
+ * the packed {@link Score scores} of the population copied into a plain array, with the
+ * population kept best-first between generations, and writes the chosen positions into a
+ * reusable array.
+ */
+public enum SelectionStrategy {
+
+    /** The best 20% of the population, found with quickselect. This is the original behaviour. */
+    TRUNCATION {
+        @Override
+        void select(long[] scores, int size, int[] parents, int count, int[] scratch, double[] wheel,
+                    int tournamentSize, RandomGenerator rng) {
+            for (int i = 0; i < size; i++) {
+                scratch[i] = i;
+            }
+            quickselect(scores, scratch, size, Math.min(count, size));
+            for (int i = 0; i < count; i++) {
+                parents[i] = scratch[i % size];
+            }
+        }
+    },
+
+    /** Each parent is the best of {@link GAConfig#getTournamentSize()} schedules drawn at random. */
+    TOURNAMENT {
+        @Override
+        void select(long[] scores, int size, int[] parents, int count, int[] scratch, double[] wheel,
+                    int tournamentSize, RandomGenerator rng) {
+            for (int i = 0; i < count; i++) {
+                int winner = rng.nextInt(size);
+                for (int round = 1; round < tournamentSize; round++) {
+                    int challenger = rng.nextInt(size);
+                    if (scores[challenger] > scores[winner]) {
+                        winner = challenger;
+                    }
+                }
+                parents[i] = winner;
+            }
+        }
+    },
+
+    /**
+     * Score-proportional (roulette wheel) selection. Weights are the distance of each packed score
+     * from the worst one, plus a floor that keeps the worst schedule selectable. Among schedules
+     * with equal hard violations this is proportional to fitness; each violation fewer adds more
+     * weight than any fitness difference.
+     */
+    ROULETTE {
+        @Override
+        void select(long[] scores, int size, int[] parents, int count, int[] scratch, double[] wheel,
+                    int tournamentSize, RandomGenerator rng) {
+            long worst = Long.MAX_VALUE;
+            long best = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                worst = Math.min(worst, scores[i]);
+                best = Math.max(best, scores[i]);
+            }
+            double floor = best > worst ? (double) (best - worst) / size : 1.0;
+            double total = 0.0;
+            for (int i = 0; i < size; i++) {
+                total += (double) (scores[i] - worst) + floor;
+                wheel[i] = total;
+            }
+            for (int i = 0; i < count; i++) {
+                double spin = rng.nextDouble() * total;
+                int low = 0;
+                int high = size - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (wheel[mid] > spin) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+                parents[i] = low;
+            }
+        }
+    },
+
+    /**
+     * Linear rank selection: the schedule at position r of the best-first population is drawn
+     * with weight (size - r), so selection pressure does not depend on the score scale.
+     */
+    RANK {
+        @Override
+        void select(long[] scores, int size, int[] parents, int count, int[] scratch, double[] wheel,
+                    int tournamentSize, RandomGenerator rng) {
+            long total = (long) size * (size + 1) / 2;
+            for (int i = 0; i < count; i++) {
+                long spin = rng.nextLong(total);
+                // Smallest rank r whose cumulative weight (r + 1) * size - r * (r + 1) / 2 exceeds spin
+                int low = 0;
+                int high = size - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    long cumulative = (long) (mid + 1) * size - (long) mid * (mid + 1) / 2;
+                    if (cumulative > spin) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+                parents[i] = low;
+            }
+        }
+    };
+
+    /**
+     * Writes count parent positions (0 .. size - 1) into parents. The scores array holds the
+     * population's scores in its first size entries; scratch and wheel have room for size entries.
+     */
+    abstract void select(long[] scores, int size, int[] parents, int count, int[] scratch, double[] wheel,
+                         int tournamentSize, RandomGenerator rng);
+
+    // Moves the k best positions of order[0 .. size) into order[0 .. k), in no particular order
+    private static void quickselect(long[] scores, int[] order, int size, int k) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            // Three-way partition around the middle element: scores are coarse, so ties are common
+            long pivot = scores[order[(low + high) >>> 1]];
+            int greater = low;   // order[low .. greater) is better than the pivot
+            int equal = low;     // order[greater .. equal) ties with it
+            int less = high + 1; // order[less .. high] is worse
+            while (equal < less) {
+                long value = scores[order[equal]];
+                if (value > pivot) {
+                    swap(order, greater++, equal++);
+                } else if (value < pivot) {
+                    swap(order, equal, --less);
+                } else {
+                    equal++;
+                }
+            }
+            if (k <= greater) {
+                high = greater - 1;
+            } else if (k > equal) {
+                low = equal;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.timetablegenertor;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated annealing over a single schedule. Starting from a constructive timetable, each step
+ * draws a random {@link Neighbourhood} move. A move that removes hard violations is kept, one that
+ * adds any is undone, and between schedules with the same number of hard violations the move is
+ * kept if it does not lose fitness, or otherwise with probability exp(delta / temperature). The temperature starts at
+ * {@link GAConfig#getInitialTemperature()} and is multiplied by {@link GAConfig#getCoolingRate()}
+ * after every round of {@link GAConfig#getPopulationSize()} moves; rounds count as generations for
+ * the stopping criteria. The result is the best schedule visited by
+ * {@link TimeTableGenerator.Schedule#getScore() score}.
+ */
+final class SimulatedAnnealing {
+
+    private SimulatedAnnealing() {
+    }
+
+    static GAResult run(SubjectIndex index, GAConfig config) {
+        long startTime = System.nanoTime();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config, TimeTableGenerator.fitnessUpperBound(index));
+        RandomStreams streams = RandomStreams.from(config);
+        RandomGenerator rng = streams.stream(0);
+
+        // current is the accepted state, trial mirrors it and absorbs each move until it is accepted or undone
+        TimeTableGenerator.Schedule current =
+                new TimeTableGenerator.Schedule(TimeTableGenerator.initializeTimetable(index, rng), index);
+        TimeTableGenerator.Schedule trial = current.copy();
+        TimeTableGenerator.Schedule best = current.copy();
+        Neighbourhood neighbourhood = new Neighbourhood(index);
+        Neighbourhood.Move move = new Neighbourhood.Move();
+
+        double temperature = config.getInitialTemperature();
+        int round = 0;
+        StopReason stopReason = monitor.check(round, best);
+        while (stopReason == null) {
+            for (int step = 0; step < config.getPopulationSize(); step++) {
+                if (!neighbourhood.next(trial.getGenes(), rng, move)) continue;
+                neighbourhood.apply(trial, move);
+                // Hard violations first, like Schedule.getScore(); fitness only decides between equal counts
+                int violationDelta = trial.countHardViolations() - current.countHardViolations();
+                double delta = trial.getFitness() - current.getFitness();
+                if (violationDelta < 0 || violationDelta == 0
+                        && (delta >= 0 || rng.nextDouble() < Math.exp(delta / temperature))) {
+                    Neighbourhood.copyDays(current, trial, move);
+                    if (current.getScore() > best.getScore()) {
+                        best.copyFrom(current);
+                    }
+                } else {
+                    Neighbourhood.copyDays(trial, current, move);
+                }
+            }
+            temperature *= config.getCoolingRate();
+            round++;
+            stopReason = monitor.check(round, best);
+        }
+
+        return new GAResult(best, round, stopReason, (System.nanoTime() - startTime) / 1_000_000, streams.seed());
+    }
+}
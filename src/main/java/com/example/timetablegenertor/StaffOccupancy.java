@@ -0,0 +1,87 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Shared, lock-free record of when each staff member teaches, used to avoid staff clashes
+ * between sections that are generated at the same time.
+ * <p>
+ * Every staff member shared by several owners (sections) has one week mask per owner that uses
+ * them, split into the {@link TimetableCalendar#words()} longs of the calendar; bit
+ * {@code day * periodsPerDay + period}, counted across the words, is set when the staff member
+ * teaches that period for that owner. Storage and the cost of reading a staff member's view are
+ * proportional to the sections sharing that staff member, not to all sections, and staff of a
+ * single section need none, so a whole department costs about the same per section as a single
+ * year. The owners of every staff member are fixed up front; after that each owner only ever
+ * writes its own cells, so publishing is a plain atomic store and readers never block writers.
+ */
+final class StaffOccupancy {
+
+    private final Map<String, Slots> slots = new HashMap<>();
+
+    /**
+     * @param staffByOwner owner -> names of the staff that owner may publish for; null names are ignored
+     * @param words        longs per week mask
+     */
+    StaffOccupancy(List<? extends Collection<String>> staffByOwner, int words) {
+        Map<String, List<Integer>> owners = new HashMap<>();
+        for (int owner = 0; owner < staffByOwner.size(); owner++) {
+            for (String staff : staffByOwner.get(owner)) {
+                if (staff == null) continue;
+                List<Integer> list = owners.computeIfAbsent(staff, k -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != owner) {
+                    list.add(owner);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Integer>> entry : owners.entrySet()) {
+            if (entry.getValue().size() < 2) continue; // nobody to clash with
+            int[] ids = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            slots.put(entry.getKey(), new Slots(ids, words));
+        }
+    }
+
+    /** The masks of one staff member, or null for a staff member used by at most one owner. */
+    Slots slots(String staff) {
+        return staff == null ? null : slots.get(staff);
+    }
+
+    /**
+     * The week masks of one staff member, one per owner that uses them. Owners address their own
+     * mask by {@link #position}, which they look up once.
+     */
+    static final class Slots {
+        private final int[] owners; // ascending owner ids
+        private final int words;
+        private final AtomicLongArray masks; // [position * words + word]
+
+        private Slots(int[] owners, int words) {
+            this.owners = owners;
+            this.words = words;
+            this.masks = new AtomicLongArray(owners.length * words);
+        }
+
+        /** Position of the given owner's mask, or -1 if that owner was not registered for this staff member. */
+        int position(int owner) {
+            int position = Arrays.binarySearch(owners, owner);
+            return position < 0 ? -1 : position;
+        }
+
+        /** Replaces one word of the periods in which the owner at the given position uses this staff member. */
+        void publish(int position, int word, long periods) {
+            masks.set(position * words + word, periods);
+        }
+
+        /** One word of the periods in which this staff member teaches for any owner but the one at the given position. */
+        long busyExcept(int position, int word) {
+            long busy = 0L;
+            for (int i = 0; i < owners.length; i++) {
+                if (i != position) {
+                    busy |= masks.get(i * words + word);
+                }
+            }
+            return busy;
+        }
+    }
+}
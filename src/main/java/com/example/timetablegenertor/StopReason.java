@@ -0,0 +1,19 @@
+package com.example.timetablegenertor;
+
+/**
+ * Why a genetic algorithm run stopped.
+ */
+public enum StopReason {
+    /** The configured number of generations was reached. */
+    GENERATION_LIMIT,
+    /** The best fitness did not improve for the configured number of generations. */
+    STAGNATION,
+    /** The best fitness reached the configured target. */
+    TARGET_FITNESS,
+    /** The best fitness reached the computed upper bound, so no better schedule exists. */
+    UPPER_BOUND,
+    /** The configured time limit ran out (see {@link GAConfig#setTimeLimitMillis}). */
+    TIME_LIMIT,
+    /** The run was cancelled (see {@link GAConfig#setCancellation}); the result is the best schedule so far. */
+    CANCELLED
+}
@@ -0,0 +1,248 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+
+/**
+ * Interns the subjects (and their staff) of one section to small integer ids so the
+ * genetic algorithm can work on a flat byte[] genome instead of maps of strings.
+ * Id 0 is reserved for a free period. The genome has one cell per period of the
+ * section's {@link TimetableCalendar}.
+ */
+final class SubjectIndex {
+
+    static final byte FREE = 0;
+
+    // Ids must fit in an unsigned byte genome cell
+    private static final int MAX_SUBJECTS = 255;
+
+    private final Map<String, Integer> subjectsWithPeriods;
+    private final Map<String, String> subjectStaffMap;
+    private final Map<String, Boolean> isLabMap;
+    private final Map<String, String> subjectShortNameMap;
+    private final Map<String, String> subjectCodeMap;
+
+    private final String[] names;   // id -> subject name (names[0] == null)
+    private final int[] periods;    // id -> required periods per week
+    private final boolean[] lab;    // id -> is lab?
+    private final int[] staff;      // id -> local staff id
+    private final String[] staffNames; // local staff id -> staff name
+    private final int[] labIds;     // ids of all lab subjects
+    private final int[] labOrdinal; // id -> position in labIds, -1 for theory
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final TimetableCalendar calendar;
+    private final boolean compact;
+    private final int busyWords;
+    // [local staff id * busyWords + word] -> periods (bit day * periodsPerDay + period, counted across the words)
+    // where that staff teaches another section
+    private final long[] staffBusy;
+
+    // Rules the section's schedules are scored against
+    private FitnessFunction fitnessFunction = FitnessFunction.DEFAULT;
+
+    SubjectIndex(Map<String, Integer> subjectsWithPeriods,
+                 Map<String, String> subjectStaffMap,
+                 Map<String, Boolean> isLabMap,
+                 Map<String, String> subjectShortNameMap,
+                 Map<String, String> subjectCodeMap,
+                 TimetableCalendar calendar) {
+        this.calendar = calendar;
+        this.compact = calendar.isCompact();
+        this.busyWords = calendar.words();
+        this.subjectsWithPeriods = subjectsWithPeriods;
+        this.subjectStaffMap = subjectStaffMap;
+        this.isLabMap = isLabMap;
+        this.subjectShortNameMap = subjectShortNameMap;
+        this.subjectCodeMap = subjectCodeMap;
+
+        int count = subjectsWithPeriods.size();
+        if (count > MAX_SUBJECTS) {
+            throw new IllegalArgumentException("A section can have at most " + MAX_SUBJECTS + " subjects.");
+        }
+        names = new String[count + 1];
+        periods = new int[count + 1];
+        lab = new boolean[count + 1];
+        staff = new int[count + 1];
+
+        Map<String, Integer> staffIds = new HashMap<>();
+        List<String> staffList = new ArrayList<>();
+        int labCount = 0;
+        int id = 1;
+        for (Map.Entry<String, Integer> entry : subjectsWithPeriods.entrySet()) {
+            String subject = entry.getKey();
+            names[id] = subject;
+            periods[id] = entry.getValue();
+            lab[id] = isLabMap.getOrDefault(subject, false);
+            String staffName = subjectStaffMap.get(subject); // may be null, interned like any other name
+            Integer staffId = staffIds.get(staffName);
+            if (staffId == null) {
+                staffId = staffList.size();
+                staffIds.put(staffName, staffId);
+                staffList.add(staffName);
+            }
+            staff[id] = staffId;
+            if (lab[id]) labCount++;
+            ids.put(subject, id);
+            id++;
+        }
+        staffNames = staffList.toArray(new String[0]);
+        staffBusy = new long[staffNames.length * busyWords];
+
+        labIds = new int[labCount];
+        labOrdinal = new int[count + 1];
+        Arrays.fill(labOrdinal, -1);
+        int next = 0;
+        for (int s = 1; s <= count; s++) {
+            if (lab[s]) {
+                labOrdinal[s] = next;
+                labIds[next++] = s;
+            }
+        }
+    }
+
+    /** Number of subjects; valid ids are 1..size(). */
+    int size() {
+        return names.length - 1;
+    }
+
+    int staffCount() {
+        return staffNames.length;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    int id(String subject) {
+        Integer id = ids.get(subject);
+        return id == null ? FREE : id;
+    }
+
+    int periods(int id) {
+        return periods[id];
+    }
+
+    boolean isLab(int id) {
+        return lab[id];
+    }
+
+    int staff(int id) {
+        return staff[id];
+    }
+
+    String staffName(int staffId) {
+        return staffNames[staffId];
+    }
+
+    TimetableCalendar calendar() {
+        return calendar;
+    }
+
+    /** True if this staff member already teaches another section in the given cell. */
+    boolean isBusy(int staffId, int cell) {
+        if (compact) {
+            return (staffBusy[staffId] >>> cell & 1L) != 0;
+        }
+        return (staffBusy[staffId * busyWords + (cell >>> 6)] >>> cell & 1L) != 0;
+    }
+
+    /** The periods of one day in which this staff member teaches another section, period 0 in the lowest bit. */
+    long staffBusyDay(int staffId, int day) {
+        int from = day * calendar.getPeriodsPerDay();
+        if (compact) {
+            return staffBusy[staffId] >>> from & calendar.dayMask();
+        }
+        int word = staffId * busyWords + (from >>> 6);
+        int shift = from & 63;
+        long bits = staffBusy[word] >>> shift;
+        if (shift + calendar.getPeriodsPerDay() > Long.SIZE) {
+            bits |= staffBusy[word + 1] << (Long.SIZE - shift);
+        }
+        return bits & calendar.dayMask();
+    }
+
+    /** True if this staff member teaches another section anywhere in the week. */
+    boolean hasStaffBusy(int staffId) {
+        for (int word = staffId * busyWords, end = word + busyWords; word < end; word++) {
+            if (staffBusy[word] != 0) return true;
+        }
+        return false;
+    }
+
+    /** One word of a staff member's busy mask; word 0 is the whole mask on a compact calendar. */
+    long staffBusyWord(int staffId, int word) {
+        return staffBusy[staffId * busyWords + word];
+    }
+
+    /**
+     * Replaces one word of the busy mask of one staff member. Schedules scored against the old
+     * masks must be invalidated by the caller.
+     */
+    void setStaffBusyWord(int staffId, int word, long busy) {
+        staffBusy[staffId * busyWords + word] = busy;
+    }
+
+    /** Marks one cell as busy for a staff member; the same invalidation rule applies. */
+    void addStaffBusy(int staffId, int cell) {
+        staffBusy[staffId * busyWords + (cell >>> 6)] |= 1L << cell;
+    }
+
+    /** Clears the busy masks of all staff members. */
+    void clearStaffBusy() {
+        Arrays.fill(staffBusy, 0L);
+    }
+
+    FitnessFunction fitnessFunction() {
+        return fitnessFunction;
+    }
+
+    /** Replaces the rules schedules are scored against; like the busy masks, before any schedule is scored. */
+    void setFitnessFunction(FitnessFunction fitnessFunction) {
+        this.fitnessFunction = fitnessFunction;
+    }
+
+    int[] labIds() {
+        return labIds;
+    }
+
+    int labOrdinal(int id) {
+        return labOrdinal[id];
+    }
+
+    Map<String, Integer> getSubjectsWithPeriods() {
+        return subjectsWithPeriods;
+    }
+
+    Map<String, String> getSubjectStaffMap() {
+        return subjectStaffMap;
+    }
+
+    Map<String, Boolean> getIsLabMap() {
+        return isLabMap;
+    }
+
+    Map<String, String> getSubjectShortNameMap() {
+        return subjectShortNameMap;
+    }
+
+    Map<String, String> getSubjectCodeMap() {
+        return subjectCodeMap;
+    }
+
+    /**
+     * Decodes a genome into the day -> subjects map used by the UI, SQLite and Excel code.
+     */
+    Map<String, List<String>> decode(byte[] genes) {
+        List<String> days = calendar.getDayNames();
+        int periodsPerDay = calendar.getPeriodsPerDay();
+        Map<String, List<String>> timetable = new HashMap<>();
+        for (int d = 0; d < days.size(); d++) {
+            List<String> periodsOfDay = new ArrayList<>(periodsPerDay);
+            for (int p = 0; p < periodsPerDay; p++) {
+                periodsOfDay.add(names[genes[d * periodsPerDay + p] & 0xFF]);
+            }
+            timetable.put(days.get(d), periodsOfDay);
+        }
+        return timetable;
+    }
+}
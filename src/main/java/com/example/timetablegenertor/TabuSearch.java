@@ -0,0 +1,87 @@
+package com.example.timetablegenertor;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tabu search over a single schedule. Each iteration scores {@link GAConfig#getTabuCandidates()}
+ * random {@link Neighbourhood} moves and takes the best one by
+ * {@link TimeTableGenerator.Schedule#getScore() score} that is not tabu, even if it is worse. A subject that leaves a period may not move back into it for
+ * {@link GAConfig#getTabuTenure()} iterations, unless that move reaches a new best schedule.
+ * Rounds of {@link GAConfig#getPopulationSize()} scored moves count as generations for the
+ * stopping criteria. The best schedule visited, by score, is the result.
+ */
+final class TabuSearch {
+
+    private TabuSearch() {
+    }
+
+    static GAResult run(SubjectIndex index, GAConfig config) {
+        long startTime = System.nanoTime();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config, TimeTableGenerator.fitnessUpperBound(index));
+        RandomStreams streams = RandomStreams.from(config);
+        RandomGenerator rng = streams.stream(0);
+
+        TimeTableGenerator.Schedule current =
+                new TimeTableGenerator.Schedule(TimeTableGenerator.initializeTimetable(index, rng), index);
+        TimeTableGenerator.Schedule trial = current.copy();
+        TimeTableGenerator.Schedule best = current.copy();
+        Neighbourhood neighbourhood = new Neighbourhood(index);
+        Neighbourhood.Move move = new Neighbourhood.Move();
+        Neighbourhood.Move chosen = new Neighbourhood.Move();
+
+        // tabuUntil[subject * cells + cell]: first iteration at which the subject may return to the cell
+        int cells = index.calendar().getCells();
+        int[] tabuUntil = new int[(index.size() + 1) * cells];
+        int candidates = config.getTabuCandidates();
+        int iterationsPerRound = Math.max(1, config.getPopulationSize() / candidates);
+        int iteration = 0;
+        int round = 0;
+        StopReason stopReason = monitor.check(round, best);
+        while (stopReason == null) {
+            for (int step = 0; step < iterationsPerRound; step++, iteration++) {
+                boolean found = false;
+                long chosenScore = Long.MIN_VALUE;
+                for (int c = 0; c < candidates; c++) {
+                    if (!neighbourhood.next(trial.getGenes(), rng, move)) continue;
+                    neighbourhood.apply(trial, move);
+                    long score = trial.getScore(); // hard violations first, fitness breaks ties
+                    Neighbourhood.copyDays(trial, current, move);
+                    boolean aspiration = score > best.getScore();
+                    if ((!found || score > chosenScore) && (aspiration || !isTabu(move, tabuUntil, cells, iteration))) {
+                        chosen.copyFrom(move);
+                        chosenScore = score;
+                        found = true;
+                    }
+                }
+                if (!found) continue;
+
+                neighbourhood.apply(current, chosen);
+                if (current.getScore() > best.getScore()) {
+                    best.copyFrom(current);
+                }
+                Neighbourhood.copyDays(trial, current, chosen);
+                makeTabu(chosen, tabuUntil, cells, iteration + config.getTabuTenure());
+            }
+            round++;
+            stopReason = monitor.check(round, best);
+        }
+
+        return new GAResult(best, round, stopReason, (System.nanoTime() - startTime) / 1_000_000, streams.seed());
+    }
+
+    // A move is tabu if it puts a subject back into a period it left within the tenure
+    private static boolean isTabu(Neighbourhood.Move move, int[] tabuUntil, int cells, int iteration) {
+        if (move.lab) {
+            return tabuUntil[move.subject * cells + move.to] > iteration;
+        }
+        return tabuUntil[move.other * cells + move.from] > iteration
+                || tabuUntil[move.subject * cells + move.to] > iteration;
+    }
+
+    private static void makeTabu(Neighbourhood.Move move, int[] tabuUntil, int cells, int until) {
+        tabuUntil[move.subject * cells + move.from] = until;
+        if (!move.lab) {
+            tabuUntil[move.other * cells + move.to] = until;
+        }
+    }
+}
@@ -1,204 +1,394 @@
 package com.example.timetablegenertor;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.random.RandomGenerator;
 
 public class TimeTableGenerator {
 
-    // Constants
-    private static final int PERIODS_PER_DAY = 8;
-    private static final int DAYS_PER_WEEK = 5;
-    private static final int TOTAL_PERIODS_PER_WEEK = PERIODS_PER_DAY * DAYS_PER_WEEK; // 40
-    private static final List<String> DAYS_OF_WEEK = Arrays.asList("Monday", "Tuesday", "Wednesday", "Thursday",
-            "Friday");
-
+    // Constants (the days and periods of a week come from each section's TimetableCalendar)
     // Max theory periods per subject per day
-    private static final int MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY = 2;
+    static final int MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY = 2;
 
-    private static final Random random = new Random();
     private static final Scanner scanner = new Scanner(System.in);
 
     /**
      * Inner class representing a complete timetable schedule for a section.
+     * The timetable is held as a flat genome of subject ids (see {@link SubjectIndex});
+     * the day -> subjects map is only built when {@link #getTimetable()} is called.
+     * <p>
+     * Fitness is cached as per-day partial scores. Callers that change the genome must
+     * call {@link #invalidateDay(int)} for every day they touch, so only those days are
+     * re-scored on the next {@link #getFitness()}. The rules and their weights come from the
+     * {@link FitnessFunction} of the index, the days and periods from its {@link TimetableCalendar}.
      */
     static class Schedule {
-        private final Map<String, List<String>> timetable; // day -> list of subjects
-        private final Map<String, String> subjectStaffMap; // subject -> staff name
-        private final Map<String, Boolean> isLabMap; // subject -> is lab?
-        private final Map<String, Integer> subjectsWithPeriods; // subject -> total weekly periods required
-        private final Map<String, String> subjectShortNameMap; // subject -> short name
-        private final Map<String, String> subjectCodeMap; // subject -> code
-
-        Schedule(Map<String, List<String>> timetable,
-                 Map<String, String> subjectStaffMap,
-                 Map<String, Boolean> isLabMap,
-                 Map<String, Integer> subjectsWithPeriods,
-                 Map<String, String> subjectShortNameMap,
-                 Map<String, String> subjectCodeMap) {
-            this.timetable = timetable;
-            this.subjectStaffMap = subjectStaffMap;
-            this.isLabMap = isLabMap;
-            this.subjectsWithPeriods = subjectsWithPeriods;
-            this.subjectShortNameMap = subjectShortNameMap;
-            this.subjectCodeMap = subjectCodeMap;
+        private final byte[] genes; // genes[day * periodsPerDay + period] = subject id, FREE if empty
+        private final SubjectIndex index;
+        private final int days;
+        private final int periodsPerDay;
+
+        // Per-day partial fitness: checks 2-5 are purely per day, check 1 is combined from per-day lab summaries
+        private final double[] dayScore;
+        private final int[] dayViolations;     // hard violations found by the per-day pass
+        private final byte[] dayLabCount;      // [day * labs + labOrdinal] -> lab periods on that day
+        private final byte[] dayLabRun;        // [day * labs + labOrdinal] -> longest consecutive run on that day
+        private final byte[] dayTheoryCount;   // [day * (size + 1) + subject] -> theory periods on that day
+        private int dirtyDays;
+        private double fitness;
+        private int hardViolations;
+        private long score;
+        private boolean fitnessValid;
+
+        Schedule(byte[] genes, SubjectIndex index) {
+            this.genes = genes;
+            this.index = index;
+            this.days = index.calendar().getDays();
+            this.periodsPerDay = index.calendar().getPeriodsPerDay();
+            int labs = index.labIds().length;
+            this.dayScore = new double[days];
+            this.dayViolations = new int[days];
+            this.dayLabCount = new byte[days * labs];
+            this.dayLabRun = new byte[days * labs];
+            this.dayTheoryCount = new byte[days * (index.size() + 1)];
+            this.dirtyDays = (1 << days) - 1;
+        }
+
+        byte[] getGenes() {
+            return genes;
+        }
+
+        SubjectIndex getIndex() {
+            return index;
+        }
+
+        public TimetableCalendar getCalendar() {
+            return index.calendar();
+        }
+
+        /** Marks one day as changed so its partial score is recomputed on the next getFitness(). */
+        void invalidateDay(int day) {
+            dirtyDays |= 1 << day;
+            fitnessValid = false;
+        }
+
+        /** Marks every day as changed, e.g. after the staff busy masks of the index were replaced. */
+        void invalidateAll() {
+            dirtyDays = (1 << days) - 1;
+            fitnessValid = false;
+        }
+
+        /**
+         * Periods in which each local staff member teaches in this schedule, as week masks of
+         * {@link TimetableCalendar#words()} longs each: [staff * words + word].
+         */
+        long[] staffMasks() {
+            int words = index.calendar().words();
+            long[] masks = new long[index.staffCount() * words];
+            for (int cell = 0; cell < genes.length; cell++) {
+                int subject = genes[cell] & 0xFF;
+                if (subject != SubjectIndex.FREE) {
+                    masks[index.staff(subject) * words + (cell >>> 6)] |= 1L << cell;
+                }
+            }
+            return masks;
+        }
+
+        /** Number of periods whose staff is already busy in another section at the same time. */
+        int countExternalClashes() {
+            int clashes = 0;
+            for (int cell = 0; cell < genes.length; cell++) {
+                int subject = genes[cell] & 0xFF;
+                if (subject != SubjectIndex.FREE && index.isBusy(index.staff(subject), cell)) {
+                    clashes++;
+                }
+            }
+            return clashes;
+        }
+
+        /**
+         * Number of violations of the hard constraints. With the default {@link ConstraintSet} these are the rules
+         * a timetable cannot be taught without: every missing or extra period of a subject, every lab that is not
+         * one consecutive block within a day, every theory period over the daily cap and every period whose staff
+         * teaches another section at that time. Computed and cached together with {@link #getFitness()}.
+         */
+        int countHardViolations() {
+            getFitness();
+            return hardViolations;
+        }
+
+        /**
+         * Hard violations first, fitness second, packed by {@link Score} so that a higher value is a better
+         * schedule: a schedule that breaks a hard constraint never outranks one that breaks fewer.
+         */
+        long getScore() {
+            getFitness();
+            return score;
+        }
+
+        /** Returns an independent copy of this schedule, including its cached scores. */
+        Schedule copy() {
+            Schedule copy = new Schedule(new byte[genes.length], index);
+            copy.copyFrom(this);
+            return copy;
+        }
+
+        /** Overwrites this schedule with another one of the same section, including its cached scores. */
+        void copyFrom(Schedule source) {
+            for (int day = 0; day < days; day++) {
+                copyDayFrom(source, day);
+            }
+        }
+
+        /** Copies one day's genes together with its cached partial score from another schedule. */
+        void copyDayFrom(Schedule source, int day) {
+            int offset = day * periodsPerDay;
+            System.arraycopy(source.genes, offset, genes, offset, periodsPerDay);
+            if ((source.dirtyDays & (1 << day)) != 0) {
+                invalidateDay(day);
+                return;
+            }
+            int labs = index.labIds().length;
+            dayScore[day] = source.dayScore[day];
+            dayViolations[day] = source.dayViolations[day];
+            System.arraycopy(source.dayLabCount, day * labs, dayLabCount, day * labs, labs);
+            System.arraycopy(source.dayLabRun, day * labs, dayLabRun, day * labs, labs);
+            int subjects = index.size() + 1;
+            System.arraycopy(source.dayTheoryCount, day * subjects, dayTheoryCount, day * subjects, subjects);
+            dirtyDays &= ~(1 << day);
+            fitnessValid = false;
         }
 
         public Map<String, List<String>> getTimetable() {
-            return timetable;
+            return index.decode(genes);
         }
 
         public Map<String, String> getSubjectStaffMap() {
-            return subjectStaffMap;
+            return index.getSubjectStaffMap();
         }
 
         public Map<String, Boolean> getIsLabMap() {
-            return isLabMap;
+            return index.getIsLabMap();
         }
 
         public Map<String, Integer> getSubjectsWithPeriods() {
-            return subjectsWithPeriods;
+            return index.getSubjectsWithPeriods();
         }
 
         // --- NEW GETTERS ---
         public Map<String, String> getSubjectShortNameMap() {
-            return subjectShortNameMap;
+            return index.getSubjectShortNameMap();
         }
 
         public Map<String, String> getSubjectCodeMap() {
-            return subjectCodeMap;
+            return index.getSubjectCodeMap();
         }
         // --- END NEW GETTERS ---
 
         public double getFitness() {
-            // Calculate fitness based on constraints
-            double fitness = 0.0;
-
-            // Calculate counts for all subjects
-            Map<String, Integer> subjectCounts = new HashMap<>();
-            for (String day : DAYS_OF_WEEK) {
-                List<String> periods = timetable.get(day);
-                for (String subject : periods) {
-                    if (subject != null) { // Subject could be null if timetable not fully filled (though it should be)
-                        subjectCounts.put(subject, subjectCounts.getOrDefault(subject, 0) + 1);
-                    }
+            if (fitnessValid) {
+                return fitness;
+            }
+            // Re-score only the days that changed since the last call
+            for (int day = 0; day < days; day++) {
+                if ((dirtyDays & (1 << day)) != 0) {
+                    scoreDay(day);
                 }
             }
+            dirtyDays = 0;
 
-            // Check 1: Lab periods are placed consecutively and appear exactly once per week
-            for (Map.Entry<String, Integer> entry : subjectsWithPeriods.entrySet()) {
-                String subject = entry.getKey();
-                int requiredPeriods = entry.getValue();
+            // Calculate fitness based on constraints
+            FitnessFunction rules = index.fitnessFunction();
+            double total = 0.0;
+            int violations = 0;
+            for (int day = 0; day < days; day++) {
+                total += dayScore[day];
+                violations += dayViolations[day];
+            }
 
-                if (isLabMap.getOrDefault(subject, false)) { // Use getOrDefault for safety
-                    int actualPeriods = subjectCounts.getOrDefault(subject, 0);
+            // Check 1: Lab periods are placed consecutively and appear exactly once per week
+            if (rules.evaluatesLabBlocks) {
+                double labScore = 0.0;
+                int[] labIds = index.labIds();
+                for (int l = 0; l < labIds.length; l++) {
+                    int requiredPeriods = index.periods(labIds[l]);
+                    int actualPeriods = 0;
+                    int longestRun = 0;
+                    for (int day = 0; day < days; day++) {
+                        actualPeriods += dayLabCount[day * labIds.length + l];
+                        longestRun = Math.max(longestRun, dayLabRun[day * labIds.length + l]);
+                    }
 
                     // Reward if the total periods match the required periods
                     // Penalty if they don't match exactly
                     if (actualPeriods == requiredPeriods) {
-                        fitness += 1.0; // Reward for correct number of periods
+                        labScore += 1.0; // Reward for correct number of periods
                     } else {
-                        fitness -= Math.abs(requiredPeriods - actualPeriods) * 0.5; // Penalty for mismatch (adjust weight)
+                        labScore -= Math.abs(requiredPeriods - actualPeriods) * 0.5; // Penalty for mismatch (adjust weight)
                     }
 
                     // Check if the lab is actually consecutive and appears only once per week
                     boolean foundConsecutiveBlock = false;
-                    for (String day : DAYS_OF_WEEK) {
-                        List<String> periods = timetable.get(day);
-                        for (int i = 0; i <= PERIODS_PER_DAY - requiredPeriods; i++) {
-                            boolean isBlock = true;
-                            for (int j = 0; j < requiredPeriods; j++) {
-                                if (i + j >= periods.size() || periods.get(i + j) == null || !periods.get(i + j).equals(subject)) {
-                                    isBlock = false;
-                                    break;
-                                }
-                            }
-                            if (isBlock) {
-                                foundConsecutiveBlock = true;
-                                break; // Found the block for this lab on this day
-                            }
-                        }
+                    for (int day = 0; day < days; day++) {
+                        foundConsecutiveBlock |= dayLabRun[day * labIds.length + l] >= requiredPeriods;
                         if (foundConsecutiveBlock && actualPeriods == requiredPeriods) {
-                            fitness += 1.0; // Reward for consecutive block
+                            labScore += 1.0; // Reward for consecutive block
                         } else if (actualPeriods > 0) {
                             // Penalty if periods exist but are not consecutive *and* if they are not the full block
                             // Only penalize if it's not the correct full block placed consecutively
                             if (!foundConsecutiveBlock) {
-                                fitness -= 1.0;
+                                labScore -= 1.0;
                             }
                         }
                     }
                     // Additional check: If a lab is required but no periods are assigned, penalize
                     if (requiredPeriods > 0 && actualPeriods == 0) {
-                        fitness -= 2.0; // Strong penalty
+                        labScore -= 2.0; // Strong penalty
+                    }
+
+                    if (rules.labBlocksHard) {
+                        // Every period off counts, and so does a lab that is not a single run
+                        violations += Math.abs(requiredPeriods - actualPeriods) + (longestRun < actualPeriods ? 1 : 0);
                     }
                 }
+                total += rules.labBlocks * labScore;
             }
 
-            // Check 2: Theory subject count per day
-            for (String day : DAYS_OF_WEEK) {
-                List<String> periods = timetable.get(day);
-                Map<String, Integer> theoryCount = new HashMap<>();
-                for (String period : periods) {
-                    if (period != null && !isLabMap.getOrDefault(period, false)) { // Use getOrDefault for safety
-                        theoryCount.put(period, theoryCount.getOrDefault(period, 0) + 1);
+            // Theory subjects with too many or too few periods over the week
+            if (rules.evaluatesTheoryPeriods) {
+                int subjects = index.size() + 1;
+                int off = 0;
+                for (int subject = 1; subject < subjects; subject++) {
+                    if (index.isLab(subject)) continue;
+                    int actualPeriods = 0;
+                    for (int day = 0; day < days; day++) {
+                        actualPeriods += dayTheoryCount[day * subjects + subject];
                     }
+                    off += Math.abs(actualPeriods - index.periods(subject));
                 }
-                for (int count : theoryCount.values()) {
-                    if (count <= MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY) {
-                        fitness += 0.5; // Small reward for adherence
-                    } else {
-                        fitness -= (count - MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY) * 0.5; // Penalty for exceeding
-                    }
+                total -= rules.theoryPeriods * off;
+                if (rules.theoryPeriodsHard) {
+                    violations += off;
                 }
             }
 
-            // Check 3: Lab periods in first half or second half
-            int midPeriod = PERIODS_PER_DAY / 2; // Assuming 8 periods, mid is at index 4 (after P4)
-            for (String day : DAYS_OF_WEEK) {
-                List<String> periods = timetable.get(day);
-                for (int i = 0; i < PERIODS_PER_DAY; i++) {
-                    String subject = periods.get(i);
-                    if (subject != null && isLabMap.getOrDefault(subject, false)) {
-                        int labDuration = subjectsWithPeriods.getOrDefault(subject, 0);
-
-                        // Check if this is the *start* of the lab block
-                        boolean isStartOfBlock = (i == 0 || periods.get(i - 1) == null || !periods.get(i - 1).equals(subject));
-
-                        if (isStartOfBlock) {
-                            // Check if the entire block fits within the first half (up to index midPeriod-1)
-                            boolean fitsInFirstHalf = (i < midPeriod && i + labDuration <= midPeriod);
-                            // Check if the entire block fits within the second half (from index midPeriod)
-                            boolean fitsInSecondHalf = (i >= midPeriod && i + labDuration <= PERIODS_PER_DAY);
-
-                            if (fitsInFirstHalf || fitsInSecondHalf) {
-                                fitness += 0.5; // Reward if the lab block fits entirely within a half
-                            } else {
-                                fitness -= 0.5; // Penalty if it spans across the halves
-                            }
+            // Institution-specific rules over the whole week
+            total += rules.scoreWeek(genes, index);
+            violations += rules.violationsWeek(genes, index);
+
+            fitness = total;
+            hardViolations = violations;
+            score = Score.pack(violations, total);
+            fitnessValid = true;
+            return fitness;
+        }
+
+        // Recomputes the partial score (checks 2-5 and custom day rules) and the lab summary of one day
+        private void scoreDay(int day) {
+            FitnessFunction rules = index.fitnessFunction();
+            int offset = day * periodsPerDay;
+            int labs = index.labIds().length;
+            Arrays.fill(dayLabCount, day * labs, (day + 1) * labs, (byte) 0);
+            Arrays.fill(dayLabRun, day * labs, (day + 1) * labs, (byte) 0);
+            int subjects = index.size() + 1;
+            Arrays.fill(dayTheoryCount, day * subjects, (day + 1) * subjects, (byte) 0);
+
+            // Raw counts of each rule; weighted once at the end
+            int theoryWithinCap = 0;
+            int theoryOverCap = 0;
+            int labsWithinHalf = 0;
+            int labsAcrossHalves = 0;
+            int staffRepeats = 0;
+            int staffBusy = 0;
+            int midPeriod = index.calendar().midPeriod(); // With 8 periods, mid is at index 4 (after P4)
+            int theoryBase = day * subjects;
+            boolean staffFitsMask = index.staffCount() <= Long.SIZE;
+            long staffSeen = 0L; // staff ids that already taught earlier this day
+            int run = 0;
+            for (int i = 0; i < periodsPerDay; i++) {
+                int subject = genes[offset + i] & 0xFF;
+                run = (i > 0 && (genes[offset + i - 1] & 0xFF) == subject) ? run + 1 : 1;
+                if (subject == SubjectIndex.FREE) continue;
+
+                if (!index.isLab(subject)) {
+                    dayTheoryCount[theoryBase + subject]++; // Check 2 is scored from these counts below
+                } else {
+                    int slot = day * labs + index.labOrdinal(subject);
+                    int labDuration = index.periods(subject);
+                    dayLabCount[slot]++;
+                    if (run > dayLabRun[slot]) {
+                        dayLabRun[slot] = (byte) run;
+                    }
+                    if (run == 1 && rules.evaluatesLabHalfDay) {
+                        // Check 3: Lab periods in first half or second half (checked at the start of each lab block)
+                        // Check if the entire block fits within the first half (up to index midPeriod-1)
+                        boolean fitsInFirstHalf = (i < midPeriod && i + labDuration <= midPeriod);
+                        // Check if the entire block fits within the second half (from index midPeriod)
+                        boolean fitsInSecondHalf = (i >= midPeriod && i + labDuration <= periodsPerDay);
+
+                        if (fitsInFirstHalf || fitsInSecondHalf) {
+                            labsWithinHalf++; // Reward if the lab block fits entirely within a half
+                        } else {
+                            labsAcrossHalves++; // Penalty if it spans across the halves
                         }
                     }
                 }
-            }
 
-            // Check 4: Staff collisions (same staff teaching different subjects at the same time) - Section level
-            for (String day : DAYS_OF_WEEK) {
-                List<String> periods = timetable.get(day);
-                Map<String, String> staffPeriodMap = new HashMap<>(); // period_index -> staff_name
-                for (int i = 0; i < periods.size(); i++) {
-                    String subject = periods.get(i);
-                    if (subject != null) {
-                        String staff = subjectStaffMap.get(subject);
-                        if (staffPeriodMap.containsKey(staff)) {
+                // Check 4: Staff collisions (same staff teaching different subjects at the same time) - Section level
+                int staff = index.staff(subject);
+                if (rules.evaluatesStaffRepeat && staffFitsMask) {
+                    if ((staffSeen & (1L << staff)) != 0) {
+                        staffRepeats++; // Collision detected within the section
+                    }
+                    staffSeen |= 1L << staff;
+                } else if (rules.evaluatesStaffRepeat) {
+                    for (int j = 0; j < i; j++) {
+                        int earlier = genes[offset + j] & 0xFF;
+                        if (earlier != SubjectIndex.FREE && index.staff(earlier) == staff) {
                             // Collision detected within the section
-                            fitness -= 1.0;
-                        } else {
-                            staffPeriodMap.put(staff, subject);
+                            staffRepeats++;
+                            break;
                         }
                     }
                 }
+
+                // Check 5: Staff already teaching another section in this period (O(1) bitmask lookup).
+                // Weighted above the other checks: such a timetable cannot actually be taught.
+                if (rules.evaluatesStaffBusy && index.isBusy(staff, offset + i)) {
+                    staffBusy++;
+                }
             }
 
-            return fitness;
+            // Check 2: Theory subject count per day, scored once per subject (counts are negated once scored)
+            if (rules.evaluatesTheoryCap) {
+                for (int i = 0; i < periodsPerDay; i++) {
+                    int subject = genes[offset + i] & 0xFF;
+                    int count = dayTheoryCount[theoryBase + subject];
+                    if (subject == SubjectIndex.FREE || count <= 0) continue;
+                    if (count <= MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY) {
+                        theoryWithinCap++; // Small reward for adherence
+                    } else {
+                        theoryOverCap += count - MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY; // Penalty for exceeding
+                    }
+                    dayTheoryCount[theoryBase + subject] = (byte) -count;
+                }
+                for (int i = 0; i < periodsPerDay; i++) {
+                    int slot = theoryBase + (genes[offset + i] & 0xFF);
+                    if (dayTheoryCount[slot] < 0) {
+                        dayTheoryCount[slot] = (byte) -dayTheoryCount[slot];
+                    }
+                }
+            }
+            dayScore[day] = rules.theoryCap * (theoryWithinCap - theoryOverCap)
+                    + rules.labHalfDay * (labsWithinHalf - labsAcrossHalves)
+                    - rules.staffRepeat * staffRepeats
+                    - rules.staffBusy * staffBusy
+                    + rules.scoreDay(genes, day, index);
+            dayViolations[day] = (rules.theoryCapHard ? theoryOverCap : 0)
+                    + (rules.labHalfDayHard ? labsAcrossHalves : 0)
+                    + (rules.staffRepeatHard ? staffRepeats : 0)
+                    + (rules.staffBusyHard ? staffBusy : 0)
+                    + rules.violationsDay(genes, day, index);
         }
     }
 
@@ -208,8 +398,13 @@ public class TimeTableGenerator {
      * For each year, two schedules are generated (section A and section B).
      * A single globalStaffSchedule is maintained to ensure that same staff are not
      * scheduled in more than one class at the same period across all years.
+     * With any arguments the prompts are skipped and {@link BatchGenerator} runs instead.
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(BatchGenerator.run(args));
+        }
+
         // Global collision map: key = "day:period", value = set of busy staff (teacher
         // names)
         Map<String, Set<String>> globalStaffSchedule = new HashMap<>();
@@ -217,6 +412,9 @@ public class TimeTableGenerator {
         // Global staff map to track which staff members are assigned to which sections
         Map<String, Set<String>> globalStaffSectionMap = new HashMap<>(); // key = staff name, value = set of sections
 
+        // The console always lays timetables out on the standard week
+        int periodsPerWeek = TimetableCalendar.STANDARD.getCells();
+
         try {
             // Process each year (assuming 2nd, 3rd, and 4th)
             List<String> years = Arrays.asList("2nd Year", "3rd Year", "4th Year");
@@ -261,9 +459,9 @@ public class TimeTableGenerator {
                     System.out.print("Enter number of periods per week (e.g., 4 for theory, 2 or 3 for lab): ");
                     int periods = scanner.nextInt();
                     scanner.nextLine(); // consume newline
-                    if (periods <= 0 || periods > TOTAL_PERIODS_PER_WEEK) {
+                    if (periods <= 0 || periods > periodsPerWeek) {
                         throw new IllegalArgumentException(
-                                "Periods per week must be between 1 and " + TOTAL_PERIODS_PER_WEEK);
+                                "Periods per week must be between 1 and " + periodsPerWeek);
                     }
 
                     System.out.print("Is this subject theory or lab? (theory/lab): ");
@@ -293,11 +491,11 @@ public class TimeTableGenerator {
 
                 // Validate total periods
                 int totalSubjectPeriods = subjectsWithPeriods.values().stream().mapToInt(Integer::intValue).sum();
-                if (totalSubjectPeriods != TOTAL_PERIODS_PER_WEEK) {
+                if (totalSubjectPeriods != periodsPerWeek) {
                     throw new IllegalArgumentException(
                             String.format(
                                     "Input Error for %s: Total periods for all subjects must be exactly %d. You entered %d.",
-                                    year, TOTAL_PERIODS_PER_WEEK, totalSubjectPeriods));
+                                    year, periodsPerWeek, totalSubjectPeriods));
                 }
 
                 System.out.println("\nGenerating timetables for " + year + " ...");
@@ -341,340 +539,595 @@ public class TimeTableGenerator {
                                        Map<String, Set<String>> globalStaffSectionMap,
                                        String section,
                                        String year) {
-        // Initialize population size
-        int populationSize = 100; // Increase population size for better results
+        return generateScheduleGA(subjectsWithPeriods, subjectStaffMap, isLabMap, subjectShortNameMap, subjectCodeMap,
+                globalStaffSchedule, globalStaffSectionMap, section, year, new GAConfig());
+    }
 
-        // Initialize population with random timetables
-        List<Schedule> population = new ArrayList<>();
-        for (int i = 0; i < populationSize; i++) {
-            Map<String, List<String>> timetable = initializeTimetable(subjectsWithPeriods, subjectStaffMap, isLabMap,
-                    subjectShortNameMap, subjectCodeMap, // Added
-                    globalStaffSectionMap, section);
-            population.add(new Schedule(timetable, subjectStaffMap, isLabMap, subjectsWithPeriods,
-                    subjectShortNameMap, subjectCodeMap)); // Added
-        }
+    /**
+     * Generates a schedule for one section using Genetic Algorithm with the given settings
+     * (population size, generations, stopping criteria and the number of threads used to score the population).
+     */
+    static Schedule generateScheduleGA(Map<String, Integer> subjectsWithPeriods,
+                                       Map<String, String> subjectStaffMap,
+                                       Map<String, Boolean> isLabMap,
+                                       Map<String, String> subjectShortNameMap,
+                                       Map<String, String> subjectCodeMap,
+                                       Map<String, Set<String>> globalStaffSchedule,
+                                       Map<String, Set<String>> globalStaffSectionMap,
+                                       String section,
+                                       String year,
+                                       GAConfig config) {
+        SectionInput input = new SectionInput(year, section, subjectsWithPeriods, subjectStaffMap, isLabMap,
+                subjectShortNameMap, subjectCodeMap);
+        return runGA(input, globalStaffSchedule, config).getSchedule();
+    }
 
-        // Evolve population using Genetic Algorithm
-        int generations = 1000; // Increase generations for better optimization
-        for (int generation = 0; generation < generations; generation++) {
-            final int currentGeneration = generation; // Declare a final variable
+    /**
+     * Runs the Genetic Algorithm for one section until one of the stopping criteria in the config fires
+     * and reports which one it was, together with the best schedule.
+     */
+    static GAResult runGA(SectionInput input, Map<String, Set<String>> globalStaffSchedule, GAConfig config) {
+        long startTime = System.nanoTime();
+        // Intern subjects once per run; the GA itself only works on byte[] genomes
+        SubjectIndex index = input.toIndex();
+        index.setFitnessFunction(config.getConstraints().compile());
+        checkFeasible(input, index);
+        // Staff booked by sections generated earlier become busy masks checked by init, mutation and fitness
+        loadStaffBusy(index, globalStaffSchedule);
 
-            // Calculate fitness for each schedule in population
-            // (Optional: print fitness periodically)
-            // if (generation % 50 == 0) {
-            //    System.out.println("Generation " + currentGeneration + ": ");
-            //    population.forEach(schedule -> System.out.println("  Fitness = " + schedule.getFitness()));
-            // }
+        // Initialize population size
+        int populationSize = config.getPopulationSize();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config, fitnessUpperBound(index));
+        Selection selection = new Selection(config);
+        HillClimber climber = new HillClimber(index, config);
+        RandomStreams streams = RandomStreams.from(config);
+        RandomGenerator rng = streams.stream(0);
+
+        SearchTelemetry telemetry = SearchTelemetry.of(config, input.toString());
+
+        try (FitnessEvaluator evaluator = new FitnessEvaluator(config)) {
+            // Initialize population with random timetables
+            telemetry.start();
+            List<Schedule> population = initializePopulation(index, populationSize, rng);
+            telemetry.lap(SearchPhase.INIT);
+            evaluator.evaluate(population);
+            telemetry.evaluated(population.size());
+            telemetry.lap(SearchPhase.EVALUATE);
+            population = selectFittest(population, populationSize);
+            telemetry.lap(SearchPhase.SURVIVE);
+            telemetry.generation(0, population);
+
+            // Evolve population using Genetic Algorithm until a stopping criterion fires
+            int generation = 0;
+            StopReason stopReason = monitor.check(generation, population.get(0));
+            while (stopReason == null) {
+                population = evolve(population, populationSize, evaluator, selection, climber, rng, telemetry);
+                generation++;
+                telemetry.generation(generation, population);
+                stopReason = monitor.check(generation, population.get(0));
+            }
+            telemetry.finish();
 
-            // Select fittest schedules
-            List<Schedule> fittestSchedules = selectFittest(population, populationSize / 5); // Select top 20%
+            // Return fittest schedule (evolve keeps the population sorted best-first)
+            Schedule bestSchedule = population.get(0);
+            if (config.isPolishBest()) {
+                climber.climb(bestSchedule);
+            }
+            GAResult result = new GAResult(bestSchedule, generation, stopReason,
+                    (System.nanoTime() - startTime) / 1_000_000, streams.seed());
 
-            // Crossover (recombine) fittest schedules to create new offspring
-            List<Schedule> offspring = crossover(fittestSchedules, subjectsWithPeriods, subjectStaffMap, isLabMap,
-                    subjectShortNameMap, subjectCodeMap); // Added
+            // Print final fitness
+            System.out.println("Final fitness for " + input.getSection() + ": " + result);
 
-            // Mutate offspring to introduce random variations
-            mutate(offspring, subjectsWithPeriods, subjectStaffMap, isLabMap,
-                    subjectShortNameMap, subjectCodeMap, // Added
-                    globalStaffSectionMap, section);
+            recordStaffSchedule(bestSchedule, globalStaffSchedule);
+            return result;
+        }
+    }
 
-            // Combine parents and offspring for next generation selection
-            population.addAll(offspring);
+    /**
+     * Anytime variant of {@link #generateScheduleGA}: evolves for about the given wall-clock budget instead of a
+     * fixed number of generations and returns the best schedule found by then, with the statistics of the run.
+     */
+    static GAResult generateScheduleWithin(Map<String, Integer> subjectsWithPeriods,
+                                           Map<String, String> subjectStaffMap,
+                                           Map<String, Boolean> isLabMap,
+                                           Map<String, String> subjectShortNameMap,
+                                           Map<String, String> subjectCodeMap,
+                                           Map<String, Set<String>> globalStaffSchedule,
+                                           String section,
+                                           String year,
+                                           long budgetMillis,
+                                           GAConfig config) {
+        SectionInput input = new SectionInput(year, section, subjectsWithPeriods, subjectStaffMap, isLabMap,
+                subjectShortNameMap, subjectCodeMap);
+        return runGAWithin(input, globalStaffSchedule, budgetMillis, config);
+    }
 
-            // Select population for next generation (keep the best)
-            population = selectFittest(population, populationSize);
+    /**
+     * Runs the Genetic Algorithm for one section until the budget runs out ({@link StopReason#TIME_LIMIT}),
+     * the best schedule cannot improve any more (upper bound or target fitness) or the run is cancelled.
+     * The generation limit and stagnation check of the config are ignored. The budget starts once the input has
+     * been checked; the run overshoots it by at most one generation, plus the final polish if enabled.
+     * <p>
+     * Safe to call from several threads at once, also with one shared globalStaffSchedule. A call books its
+     * section there only when it finishes, so concurrent calls do not avoid each other's staff; generate
+     * sections that share staff with {@link #generateSchedulesConcurrently} instead.
+     */
+    static GAResult runGAWithin(SectionInput input, Map<String, Set<String>> globalStaffSchedule, long budgetMillis,
+                                GAConfig config) {
+        if (budgetMillis < 1) {
+            throw new IllegalArgumentException("Time budget must be at least 1 ms.");
         }
+        // A private copy, so callers may share one config between threads
+        GAConfig anytime = config.copy()
+                .setTimeLimitMillis(budgetMillis)
+                .setGenerations(Integer.MAX_VALUE)
+                .setStagnationGenerations(0);
+        return runGA(input, globalStaffSchedule, anytime);
+    }
 
-        // Return fittest schedule
-        Schedule bestSchedule = population.stream().max(Comparator.comparingDouble(Schedule::getFitness)).orElse(null);
+    /**
+     * Island-model variant of {@link #generateScheduleGA}: several sub-populations evolve on their own
+     * threads and periodically exchange their best schedules (see {@link IslandModelGA}).
+     */
+    static Schedule generateScheduleIslandGA(Map<String, Integer> subjectsWithPeriods,
+                                             Map<String, String> subjectStaffMap,
+                                             Map<String, Boolean> isLabMap,
+                                             Map<String, String> subjectShortNameMap,
+                                             Map<String, String> subjectCodeMap,
+                                             Map<String, Set<String>> globalStaffSchedule,
+                                             Map<String, Set<String>> globalStaffSectionMap,
+                                             String section,
+                                             String year,
+                                             GAConfig config) {
+        SectionInput input = new SectionInput(year, section, subjectsWithPeriods, subjectStaffMap, isLabMap,
+                subjectShortNameMap, subjectCodeMap);
+        return runIslandGA(input, globalStaffSchedule, config).getSchedule();
+    }
+
+    static GAResult runIslandGA(SectionInput input, Map<String, Set<String>> globalStaffSchedule, GAConfig config) {
+        SubjectIndex index = input.toIndex();
+        index.setFitnessFunction(config.getConstraints().compile());
+        checkFeasible(input, index);
+        loadStaffBusy(index, globalStaffSchedule);
+        GAResult result = IslandModelGA.run(index, config, input.toString());
 
-        // Print final fitness
-        System.out.println("Final fitness for " + section + ": " + bestSchedule.getFitness());
+        System.out.println("Final fitness for " + input.getSection() + " (" + config.getIslandCount() + " islands): "
+                + result);
 
-        return bestSchedule;
+        recordStaffSchedule(result.getSchedule(), globalStaffSchedule);
+        return result;
     }
 
-    // Helper methods for Genetic Algorithm
-    static Map<String, List<String>> initializeTimetable(
-            Map<String, Integer> subjectsWithPeriods,
-            Map<String, String> subjectStaffMap,
-            Map<String, Boolean> isLabMap,
-            Map<String, String> subjectShortNameMap, // Added
-            Map<String, String> subjectCodeMap,      // Added
-            Map<String, Set<String>> globalStaffSectionMap,
-            String section) {
-
-        Map<String, List<String>> timetable = new HashMap<>();
-        for (String day : DAYS_OF_WEEK) {
-            timetable.put(day, new ArrayList<>(Collections.nCopies(PERIODS_PER_DAY, null)));
-        }
-
-        // Step 1: Place labs (Ensure each lab appears only once per week)
-        List<String> labs = subjectsWithPeriods.entrySet().stream()
-                .filter(e -> isLabMap.getOrDefault(e.getKey(), false)) // Filter only lab subjects
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        for (String lab : labs) {
-            int labDuration = subjectsWithPeriods.getOrDefault(lab, 0);
-            boolean placed = false;
-
-            // Try to place the lab only once in the week
-            int attempts = 0;
-            while (!placed && attempts < 100) { // Add attempt limit to prevent infinite loops
-                String day = DAYS_OF_WEEK.get(random.nextInt(DAYS_OF_WEEK.size()));
-                // Ensure startPeriod + duration fits within the day
-                int startPeriod = random.nextInt(PERIODS_PER_DAY - labDuration + 1);
-
-                // Check if the slot is available (no overlapping subjects)
-                boolean canPlace = true;
-                for (int j = 0; j < labDuration; j++) {
-                    if (startPeriod + j >= PERIODS_PER_DAY || timetable.get(day).get(startPeriod + j) != null) {
-                        canPlace = false;
-                        break;
-                    }
-                }
+    /** Simulated annealing on a single schedule (see {@link SimulatedAnnealing}). */
+    static GAResult runSimulatedAnnealing(SectionInput input, Map<String, Set<String>> globalStaffSchedule,
+                                          GAConfig config) {
+        return runLocalSearch(input, globalStaffSchedule, config, SimulatedAnnealing::run, "simulated annealing");
+    }
 
-                // Check for staff collision within the same section during initialization
-                if (canPlace) {
-                    String staff = subjectStaffMap.getOrDefault(lab, "");
-                    for (int j = 0; j < labDuration; j++) {
-                        if (startPeriod + j < PERIODS_PER_DAY) { // Ensure index is valid
-                            String currentPeriodSubject = timetable.get(day).get(startPeriod + j);
-                            if (currentPeriodSubject != null && subjectStaffMap.getOrDefault(currentPeriodSubject, "").equals(staff)) {
-                                canPlace = false;
-                                break;
-                            }
-                        } else {
-                            canPlace = false; // Lab goes beyond the day's periods
-                            break;
-                        }
-                    }
-                }
+    /** Tabu search on a single schedule (see {@link TabuSearch}). */
+    static GAResult runTabuSearch(SectionInput input, Map<String, Set<String>> globalStaffSchedule, GAConfig config) {
+        return runLocalSearch(input, globalStaffSchedule, config, TabuSearch::run, "tabu search");
+    }
 
-                if (canPlace) {
-                    // Place the lab in the timetable
-                    for (int j = 0; j < labDuration; j++) {
-                        if (startPeriod + j < PERIODS_PER_DAY) { // Ensure index is valid
-                            timetable.get(day).set(startPeriod + j, lab);
-                        } else {
-                            // This case should technically be prevented by the check above
-                            // but adding a safety break just in case
-                            break;
-                        }
-                    }
-                    placed = true; // Lab is now scheduled for the week
-                }
-                attempts++;
-            }
-            if (!placed) {
-                System.err.println("Warning: Could not place lab " + lab + " during initialization after " + attempts + " attempts.");
-                // This might happen if constraints are too tight, or periods/days are small
-                // The GA might later fix this, but it's a potential issue
-            }
+    private static GAResult runLocalSearch(SectionInput input, Map<String, Set<String>> globalStaffSchedule,
+                                           GAConfig config, BiFunction<SubjectIndex, GAConfig, GAResult> search,
+                                           String name) {
+        SubjectIndex index = input.toIndex();
+        index.setFitnessFunction(config.getConstraints().compile());
+        checkFeasible(input, index);
+        loadStaffBusy(index, globalStaffSchedule);
+        GAResult result = search.apply(index, config);
+
+        System.out.println("Final fitness for " + input.getSection() + " (" + name + "): " + result);
+
+        recordStaffSchedule(result.getSchedule(), globalStaffSchedule);
+        return result;
+    }
+
+    /**
+     * Exact variant of {@link #generateScheduleGA}: searches for a schedule without hard violations
+     * (see {@link Schedule#countHardViolations()}) instead of evolving one, and returns null when none exists.
+     */
+    static Schedule generateScheduleExact(Map<String, Integer> subjectsWithPeriods,
+                                          Map<String, String> subjectStaffMap,
+                                          Map<String, Boolean> isLabMap,
+                                          Map<String, String> subjectShortNameMap,
+                                          Map<String, String> subjectCodeMap,
+                                          Map<String, Set<String>> globalStaffSchedule,
+                                          Map<String, Set<String>> globalStaffSectionMap,
+                                          String section,
+                                          String year) {
+        SectionInput input = new SectionInput(year, section, subjectsWithPeriods, subjectStaffMap, isLabMap,
+                subjectShortNameMap, subjectCodeMap);
+        return solveExact(input, globalStaffSchedule);
+    }
+
+    static Schedule solveExact(SectionInput input, Map<String, Set<String>> globalStaffSchedule) {
+        long startTime = System.nanoTime();
+        SubjectIndex index = input.toIndex();
+        checkFeasible(input, index);
+        loadStaffBusy(index, globalStaffSchedule);
+        long[] nodes = new long[1];
+        byte[] genes = ExactSolver.solve(index, nodes);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        if (genes == null) {
+            System.out.println("No timetable without hard violations exists for " + input.getSection()
+                    + " (" + nodes[0] + " nodes, " + elapsedMillis + " ms)");
+            return null;
         }
 
-        // Step 2: Place theory subjects
-        List<String> theorySubjects = subjectsWithPeriods.entrySet().stream()
-                .filter(e -> !isLabMap.getOrDefault(e.getKey(), false)) // Only theory subjects
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        Schedule schedule = new Schedule(genes, index);
+        System.out.println("Exact timetable for " + input.getSection() + ": fitness " + schedule.getFitness()
+                + " (" + nodes[0] + " nodes, " + elapsedMillis + " ms)");
+        recordStaffSchedule(schedule, globalStaffSchedule);
+        return schedule;
+    }
+
+    /**
+     * Generates all given sections at the same time, one pool thread per section, resolving staff
+     * clashes between them through a shared occupancy index (see {@link ConcurrentSectionScheduler}).
+     * Staff already booked in globalStaffSchedule are avoided as well, and the generated schedules are
+     * booked into it afterwards. The schedules are returned in the order of the inputs.
+     */
+    static List<Schedule> generateSchedulesConcurrently(List<SectionInput> sections,
+                                                        Map<String, Set<String>> globalStaffSchedule,
+                                                        GAConfig config) {
+        List<Schedule> schedules = new ArrayList<>(sections.size());
+        List<GAResult> results = ConcurrentSectionScheduler.generate(sections, globalStaffSchedule, config);
+        for (int i = 0; i < results.size(); i++) {
+            GAResult result = results.get(i);
+            System.out.println("Final fitness for " + sections.get(i) + ": " + result);
+            recordStaffSchedule(result.getSchedule(), globalStaffSchedule);
+            schedules.add(result.getSchedule());
+        }
+        return schedules;
+    }
 
-        for (String subject : theorySubjects) {
-            int remainingPeriods = subjectsWithPeriods.getOrDefault(subject, 0);
+    /**
+     * Generates every section of a department in one job, like {@link #generateSchedulesConcurrently}.
+     * The schedules are returned in the order of {@link Department#getSections()}.
+     */
+    static List<Schedule> generateDepartment(Department department, Map<String, Set<String>> globalStaffSchedule,
+                                             GAConfig config) {
+        long startTime = System.nanoTime();
+        List<Schedule> schedules = generateSchedulesConcurrently(department.getSections(), globalStaffSchedule, config);
+        System.out.println("Generated " + department + " in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        return schedules;
+    }
 
-            while (remainingPeriods > 0) {
-                String day = DAYS_OF_WEEK.get(random.nextInt(DAYS_OF_WEEK.size()));
-                int period = random.nextInt(PERIODS_PER_DAY);
+    /**
+     * The weighted score and hard violations of every enabled constraint on its own, in the order of the set,
+     * to explain a finished schedule: name -> {score, violations}. The scores add up to the schedule's fitness.
+     * Each rule is scored against the schedule's index, so no other schedule of that index may be scored meanwhile.
+     */
+    static Map<String, double[]> fitnessBreakdown(Schedule schedule, ConstraintSet constraints) {
+        SubjectIndex index = schedule.getIndex();
+        FitnessFunction rules = index.fitnessFunction();
+        Map<String, double[]> breakdown = new LinkedHashMap<>();
+        try {
+            for (Constraint constraint : constraints.all()) {
+                if (!constraint.isEnabled()) continue;
+                index.setFitnessFunction(new FitnessFunction(List.of(constraint)));
+                Schedule alone = new Schedule(schedule.getGenes().clone(), index);
+                breakdown.put(constraint.getName(), new double[]{alone.getFitness(), alone.countHardViolations()});
+            }
+        } finally {
+            index.setFitnessFunction(rules);
+        }
+        return breakdown;
+    }
 
-                if (timetable.get(day).get(period) == null) {
-                    timetable.get(day).set(period, subject);
-                    remainingPeriods--;
+    /**
+     * Upper bound on {@link Schedule#getFitness()} for the given subjects, used to stop a run early once a
+     * schedule reaches it. Every built-in rule is bounded by its best possible outcome, times its weight:
+     * <ul>
+     *   <li>a lab scores at most 1 (count) + days (block found on the first day) for its blocks and
+     *       +1 for fitting in the larger half of the day, unless splitting it could score more, which is only possible for
+     *       very long labs</li>
+     *   <li>a theory subject earns the daily reward on at most min(periods, days) days</li>
+     *   <li>a staff member with more periods than they can teach on separate days pays at least one
+     *       staff repeat per extra period, and a lab block forces (length - 1) of them onto one day</li>
+     * </ul>
+     * Custom rules add their own bounds (see {@link Constraint#upperBound}).
+     */
+    static double fitnessUpperBound(SubjectIndex index) {
+        FitnessFunction rules = index.fitnessFunction();
+        double bound = rules.customUpperBound(index);
+        TimetableCalendar calendar = index.calendar();
+        int days = calendar.getDays();
+        // The larger half of the day: with an odd number of periods the second half is one period longer
+        int largerHalf = calendar.getPeriodsPerDay() - calendar.midPeriod();
+        int[] staffPeriods = new int[index.staffCount()];
+        int[] staffBlockedPeriods = new int[index.staffCount()]; // periods forced onto an already used day
+        int theoryDays = 0;
+        for (int subject = 1; subject <= index.size(); subject++) {
+            int periods = index.periods(subject);
+            int staff = index.staff(subject);
+            staffPeriods[staff] += periods;
+            if (!index.isLab(subject)) {
+                theoryDays += Math.min(periods, days);
+                continue;
+            }
+            double split = rules.labHalfDay * periods + rules.labBlocks * Math.max(0, 1 - days);
+            if (periods <= calendar.getPeriodsPerDay()) {
+                double block = rules.labBlocks * (1 + days) + rules.labHalfDay * (periods <= largerHalf ? 1 : -1);
+                // Keeping the lab in one block costs at most (periods - 1) staff repeats more than splitting it
+                if (block - rules.staffRepeat * (periods - 1) >= split) {
+                    bound += block;
+                    staffBlockedPeriods[staff] += periods - 1;
+                    continue;
                 }
             }
+            bound += split;
         }
+        bound += rules.theoryCap * Math.min(theoryDays, calendar.getCells());
+        for (int staff = 0; staff < staffPeriods.length; staff++) {
+            int teachingDays = Math.min(days, staffPeriods[staff] - staffBlockedPeriods[staff]);
+            bound -= rules.staffRepeat * (staffPeriods[staff] - teachingDays);
+        }
+        return bound;
+    }
 
-        return timetable;
+    /**
+     * Fails fast, naming the section, if its subjects cannot fit in a timetable at all
+     * (see {@link ConstructiveInitializer#checkFeasible}).
+     */
+    static void checkFeasible(SectionInput input, SubjectIndex index) {
+        try {
+            ConstructiveInitializer.checkFeasible(index);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(input + ": " + e.getMessage(), e);
+        }
     }
 
-    static String getRandomSubject(Map<String, Integer> subjectsWithPeriods, Map<String, Boolean> isLabMap) {
+    // Helper methods for Genetic Algorithm
+    static List<Schedule> initializePopulation(SubjectIndex index, int populationSize, RandomGenerator rng) {
+        List<Schedule> population = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            population.add(new Schedule(initializeTimetable(index, rng), index));
+        }
+        return population;
+    }
+
+    /**
+     * Runs one generation: picks 20% of the population as parents, recombines and mutates them,
+     * scores the offspring and returns the best populationSize schedules of parents and offspring
+     * combined, best-first, with the elite polished by the climber. The population must already be scored and should be best-first.
+     * The phases are timed into the telemetry; the caller reports the generation.
+     */
+    static List<Schedule> evolve(List<Schedule> population, int populationSize, FitnessEvaluator evaluator,
+                                 Selection selection, HillClimber climber, RandomGenerator rng,
+                                 SearchTelemetry telemetry) {
+        telemetry.start();
+
+        // Select parents
+        List<Schedule> parents = selection.parents(population, parentCount(populationSize), rng);
+        telemetry.lap(SearchPhase.SELECT);
+
+        // Crossover (recombine) parents to create new offspring
+        List<Schedule> offspring = selection.offspring();
+        crossover(parents, offspring, rng);
+        telemetry.lap(SearchPhase.CROSSOVER);
+
+        // Mutate offspring to introduce random variations
+        mutate(offspring, rng);
+        telemetry.lap(SearchPhase.MUTATE);
+
+        // Score offspring concurrently; survivor selection then only reads cached fitness
+        evaluator.evaluate(offspring);
+        telemetry.evaluated(offspring.size());
+        telemetry.lap(SearchPhase.EVALUATE);
+
+        // Select population for next generation (keep the best)
+        List<Schedule> next = selection.survivors(population, offspring, populationSize);
+
+        // Memetic step: climb the elite to a local optimum (a no-op unless enabled in the config)
+        climber.polishElites(next);
+        telemetry.lap(SearchPhase.SURVIVE);
+        return next;
+    }
+
+    static byte[] initializeTimetable(SubjectIndex index, RandomGenerator rng) {
+        // Labs as whole blocks within a half day, then theory periods under the daily cap (see ConstructiveInitializer)
+        return ConstructiveInitializer.build(index, rng);
+    }
+
+    static String getRandomSubject(Map<String, Integer> subjectsWithPeriods, Map<String, Boolean> isLabMap,
+                                   RandomGenerator rng) {
         // Select a random subject
         List<String> subjects = new ArrayList<>(subjectsWithPeriods.keySet());
-        return subjects.get(random.nextInt(subjects.size()));
+        return subjects.get(rng.nextInt(subjects.size()));
     }
 
     static List<Schedule> selectFittest(List<Schedule> population, int numToSelect) {
-        // Select fittest schedules based on fitness (using tournament selection or simply sorting)
-        return population.stream()
-                .sorted(Comparator.comparingDouble(Schedule::getFitness).reversed())
-                .limit(numToSelect)
-                .collect(Collectors.toList());
-    }
-
-    static List<Schedule> crossover(List<Schedule> fittestSchedules,
-                                    Map<String, Integer> subjectsWithPeriods,
-                                    Map<String, String> subjectStaffMap,
-                                    Map<String, Boolean> isLabMap,
-                                    Map<String, String> subjectShortNameMap, // Added
-                                    Map<String, String> subjectCodeMap)      // Added
-    {
-        // Crossover (recombine) fittest schedules to create new offspring
-        List<Schedule> offspring = new ArrayList<>();
+        // Full sort, used to rank a freshly seeded or re-scored population; generations go through Selection
+        List<Schedule> sorted = new ArrayList<>(population);
+        sorted.sort(Selection.BEST_FIRST);
+        if (sorted.size() > numToSelect) {
+            sorted.subList(numToSelect, sorted.size()).clear();
+        }
+        return sorted;
+    }
+
+    /** Parents selected per generation, 20% of the population; crossover makes one child per pair. */
+    static int parentCount(int populationSize) {
+        return populationSize / 5;
+    }
+
+    static void crossover(List<Schedule> parents, List<Schedule> offspring, RandomGenerator rng) {
+        // Crossover (recombine) parents to create new offspring
         // Create pairs and perform crossover
-        for (int i = 0; i < fittestSchedules.size(); i += 2) {
-            if (i + 1 < fittestSchedules.size()) { // Ensure pairs exist
-                Schedule parent1 = fittestSchedules.get(i);
-                Schedule parent2 = fittestSchedules.get(i + 1);
-
-                Map<String, List<String>> childTimetable = crossoverTimetables(parent1.getTimetable(),
-                        parent2.getTimetable());
-                offspring.add(new Schedule(childTimetable, subjectStaffMap, isLabMap, subjectsWithPeriods,
-                        subjectShortNameMap, subjectCodeMap)); // Added
+        for (int i = 0; i < parents.size(); i += 2) {
+            if (i + 1 < parents.size()) { // Ensure pairs exist
+                offspring.add(crossoverTimetables(parents.get(i), parents.get(i + 1), rng));
             }
         }
-        return offspring;
     }
 
-    static Map<String, List<String>> crossoverTimetables(Map<String, List<String>> parent1Timetable,
-                                                         Map<String, List<String>> parent2Timetable) {
-        // Crossover timetables by selecting a random day and swapping periods
-        Map<String, List<String>> childTimetable = new HashMap<>();
-        for (String day : DAYS_OF_WEEK) {
-            // Choose a crossover point (a day)
-            if (random.nextBoolean()) {
-                childTimetable.put(day, new ArrayList<>(parent1Timetable.get(day))); // Copy parent 1's day
-            } else {
-                childTimetable.put(day, new ArrayList<>(parent2Timetable.get(day))); // Copy parent 2's day
-            }
+    static Schedule crossoverTimetables(Schedule parent1, Schedule parent2, RandomGenerator rng) {
+        // Crossover timetables by taking each whole day from one parent or the other.
+        // The child inherits the cached per-day scores along with the genes, so it is not re-scored from scratch.
+        TimetableCalendar calendar = parent1.getCalendar();
+        Schedule child = new Schedule(new byte[calendar.getCells()], parent1.getIndex());
+        for (int day = 0; day < calendar.getDays(); day++) {
+            child.copyDayFrom(rng.nextBoolean() ? parent1 : parent2, day);
         }
-        return childTimetable;
+        return child;
     }
 
-    static void mutate(List<Schedule> offspring,
-                       Map<String, Integer> subjectsWithPeriods,
-                       Map<String, String> subjectStaffMap,
-                       Map<String, Boolean> isLabMap,
-                       Map<String, String> subjectShortNameMap, // Added
-                       Map<String, String> subjectCodeMap,      // Added
-                       Map<String, Set<String>> globalStaffSectionMap,
-                       String section) {
+    static void mutate(List<Schedule> offspring, RandomGenerator rng) {
         // Mutate offspring by randomly swapping periods (with check for labs)
         for (Schedule schedule : offspring) {
-            Map<String, List<String>> timetable = schedule.getTimetable();
-            for (String day : DAYS_OF_WEEK) {
-                List<String> periods = timetable.get(day);
+            byte[] genes = schedule.getGenes();
+            SubjectIndex index = schedule.getIndex();
+            int periodsPerDay = index.calendar().getPeriodsPerDay();
+            for (int day = 0; day < index.calendar().getDays(); day++) {
+                int offset = day * periodsPerDay;
                 // Use a 10% mutation rate per day
-                if (random.nextDouble() < 0.1) { // Only mutate 10% of the days
-                    int i = random.nextInt(PERIODS_PER_DAY);
-                    int j = random.nextInt(PERIODS_PER_DAY);
-                    String subjectI = periods.get(i);
-                    String subjectJ = periods.get(j);
-
-                    // Check if either subject is a lab
-                    if (subjectI != null && isLabMap.getOrDefault(subjectI, false)) {
-                        // If subjectI is a lab, move entire lab block
-                        int labDuration = subjectsWithPeriods.getOrDefault(subjectI, 0);
-                        boolean canMoveBlock = true;
-                        // Check if we have space to move the block
-                        if (j + labDuration > PERIODS_PER_DAY) {
-                            canMoveBlock = false;
-                        } else {
-                            for (int k = 0; k < labDuration; k++) {
-                                if (j + k >= PERIODS_PER_DAY || periods.get(j + k) != null) { // Check bounds
-                                    canMoveBlock = false;
-                                    break;
-                                }
-                            }
-                        }
-                        if (canMoveBlock) {
-                            // move the lab block.
-                            // First, clear the original location of the block
-                            for(int k = 0; k < labDuration; k++) {
-                                if (i + k < PERIODS_PER_DAY && periods.get(i + k) != null && periods.get(i + k).equals(subjectI)) {
-                                    periods.set(i + k, null);
-                                }
-                            }
-                            // Then, place the block at the new location
-                            for (int k = 0; k < labDuration; k++) {
-                                if (j + k < PERIODS_PER_DAY) {
-                                    periods.set(j + k, subjectI);
-                                }
-                            }
-                            continue;  // Skip the remaining part of this iteration.
-                        }
+                if (rng.nextDouble() < 0.1) { // Only mutate 10% of the days
+                    int i = rng.nextInt(periodsPerDay);
+                    int j = rng.nextInt(periodsPerDay);
+                    int subjectI = genes[offset + i] & 0xFF;
+                    int subjectJ = genes[offset + j] & 0xFF;
+
+                    // Check if either subject is a lab; if so, move the entire lab block
+                    if (subjectI != SubjectIndex.FREE && index.isLab(subjectI)
+                            && moveLabBlock(genes, offset, periodsPerDay, subjectI, index.periods(subjectI), i, j,
+                            index.staffBusyDay(index.staff(subjectI), day))) {
+                        schedule.invalidateDay(day);
+                        continue; // Skip the remaining part of this iteration.
                     }
-                    if (subjectJ != null && isLabMap.getOrDefault(subjectJ, false)) {
-                        // If subjectJ is a lab, move entire lab block
-                        int labDuration = subjectsWithPeriods.getOrDefault(subjectJ, 0);
-                        boolean canMoveBlock = true;
-                        // Check if we have space to move the block
-                        if (i + labDuration > PERIODS_PER_DAY) {
-                            canMoveBlock = false;
-                        } else {
-                            for (int k = 0; k < labDuration; k++) {
-                                if (i + k >= PERIODS_PER_DAY || periods.get(i + k) != null) { // Check bounds
-                                    canMoveBlock = false;
-                                    break;
-                                }
-                            }
-                        }
-                        if (canMoveBlock) {
-                            // move the lab block.
-                            // First, clear the original location of the block
-                            for(int k = 0; k < labDuration; k++) {
-                                if (j + k < PERIODS_PER_DAY && periods.get(j + k) != null && periods.get(j + k).equals(subjectJ)) {
-                                    periods.set(j + k, null);
-                                }
-                            }
-                            // Then, place the block at the new location
-                            for (int k = 0; k < labDuration; k++) {
-                                if (i + k < PERIODS_PER_DAY) {
-                                    periods.set(i + k, subjectJ);
-                                }
-                            }
-                            continue; // Skip the remaining part of this iteration.
-                        }
+                    if (subjectJ != SubjectIndex.FREE && index.isLab(subjectJ)
+                            && moveLabBlock(genes, offset, periodsPerDay, subjectJ, index.periods(subjectJ), j, i,
+                            index.staffBusyDay(index.staff(subjectJ), day))) {
+                        schedule.invalidateDay(day);
+                        continue; // Skip the remaining part of this iteration.
                     }
 
-                    // Check if either period is null (shouldn't happen if total periods == 40)
-                    if (subjectI == null || subjectJ == null) {
+                    // Check if either period is free (shouldn't happen if the subjects fill the week)
+                    if (subjectI == SubjectIndex.FREE || subjectJ == SubjectIndex.FREE) {
+                        continue;
+                    }
+                    // Don't swap if it books more staff into periods where they already teach another section
+                    long busyI = index.staffBusyDay(index.staff(subjectI), day);
+                    long busyJ = index.staffBusyDay(index.staff(subjectJ), day);
+                    int clashesBefore = busyAt(busyI, i) + busyAt(busyJ, j);
+                    int clashesAfter = busyAt(busyJ, i) + busyAt(busyI, j);
+                    if (clashesAfter > clashesBefore) {
                         continue;
                     }
-                    // Ensure that swapping doesn't violate staff allocation across sections
-                    String staffI = subjectStaffMap.getOrDefault(subjectI, "");
-                    String staffJ = subjectStaffMap.getOrDefault(subjectJ, "");
-
-                    // Check if the swap would create a conflict with the global staff section map
-                    // This condition seems overly complex. Let's simplify:
-                    // Only swap if the periods are different and the staff assignments don't conflict
-                    // with the global map for that specific day and period across all sections.
-
-                    // This mutation doesn't directly check global StaffSchedule.
-                    // The collision check is mainly handled in the fitness function and initialization.
-                    // Let's remove the redundant check here for now.
-                    // if (!staffI.equals(staffJ) || !globalStaffSectionMap.getOrDefault(staffI, Set.of()).contains(section)) {
                     // Swap the theory subjects
-                    periods.set(i, subjectJ);
-                    periods.set(j, subjectI);
-                    // }
+                    genes[offset + i] = (byte) subjectJ;
+                    genes[offset + j] = (byte) subjectI;
+                    schedule.invalidateDay(day);
                 }
             }
         }
     }
 
+    // Moves a lab block starting at period 'from' to period 'to' within one day, if the target periods are free
+    // and the move does not put the lab's staff into more periods (staffBusy: that day's busy mask) where they
+    // already teach another section.
+    private static boolean moveLabBlock(byte[] genes, int offset, int periodsPerDay, int lab, int labDuration, int from,
+                                        int to, long staffBusy) {
+        // Check if we have space to move the block
+        if (to + labDuration > periodsPerDay) {
+            return false;
+        }
+        if (Long.bitCount(staffBusy & TimetableCalendar.block(to, labDuration))
+                > Long.bitCount(staffBusy & TimetableCalendar.block(from, labDuration))) {
+            return false;
+        }
+        for (int k = 0; k < labDuration; k++) {
+            if (genes[offset + to + k] != SubjectIndex.FREE) {
+                return false;
+            }
+        }
+        // First, clear the original location of the block
+        for (int k = 0; k < labDuration && from + k < periodsPerDay; k++) {
+            if ((genes[offset + from + k] & 0xFF) == lab) {
+                genes[offset + from + k] = SubjectIndex.FREE;
+            }
+        }
+        // Then, place the block at the new location
+        Arrays.fill(genes, offset + to, offset + to + labDuration, (byte) lab);
+        return true;
+    }
+
+    private static int busyAt(long busy, int period) {
+        return (int) (busy >>> period) & 1;
+    }
+
+    /**
+     * Loads the periods in which the section's staff already teach (according to the global
+     * "day:period" -> staff map) into the index's staff busy masks.
+     */
+    static void loadStaffBusy(SubjectIndex index, Map<String, Set<String>> globalStaffSchedule) {
+        if (globalStaffSchedule == null) return;
+        // Locked like recordStaffSchedule, so runs on several threads can share one map
+        synchronized (globalStaffSchedule) {
+            if (globalStaffSchedule.isEmpty()) return;
+            index.clearStaffBusy();
+            TimetableCalendar calendar = index.calendar();
+            for (int day = 0; day < calendar.getDays(); day++) {
+                for (int period = 0; period < calendar.getPeriodsPerDay(); period++) {
+                    Set<String> busyStaff = globalStaffSchedule.get(staffSlotKey(calendar, day, period));
+                    if (busyStaff == null) continue;
+                    // Look up the section's own staff, so the cost does not grow with the staff booked elsewhere
+                    for (int staff = 0; staff < index.staffCount(); staff++) {
+                        if (busyStaff.contains(index.staffName(staff))) {
+                            index.addStaffBusy(staff, day * calendar.getPeriodsPerDay() + period);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Books the staff of a generated schedule into the global "day:period" -> staff map so that
+     * sections generated afterwards avoid them.
+     */
+    static void recordStaffSchedule(Schedule schedule, Map<String, Set<String>> globalStaffSchedule) {
+        if (globalStaffSchedule == null) return;
+        byte[] genes = schedule.getGenes();
+        SubjectIndex index = schedule.getIndex();
+        TimetableCalendar calendar = index.calendar();
+        int periodsPerDay = calendar.getPeriodsPerDay();
+        synchronized (globalStaffSchedule) {
+            for (int cell = 0; cell < genes.length; cell++) {
+                int subject = genes[cell] & 0xFF;
+                if (subject == SubjectIndex.FREE) continue;
+                String staff = index.staffName(index.staff(subject));
+                if (staff != null) {
+                    globalStaffSchedule.computeIfAbsent(
+                            staffSlotKey(calendar, cell / periodsPerDay, cell % periodsPerDay),
+                            k -> new HashSet<>()).add(staff);
+                }
+            }
+        }
+    }
+
+    // Key of the global staff schedule: day name and 0-based period index, e.g. "Monday:0". Keys depend only on
+    // the day name, so sections on calendars of different sizes still see each other's bookings.
+    static String staffSlotKey(TimetableCalendar calendar, int day, int period) {
+        return calendar.getDayNames().get(day) + ":" + period;
+    }
+
     // Utility to print a timetable in a formatted table.
-    private static void printTimetable(Schedule schedule, String section) {
+    static void printTimetable(Schedule schedule, String section) {
         System.out.println("\nTimetable for " + section + ":");
         System.out.println("--------------------------------------------------------------------------------------");
         System.out.printf("| %-10s |", "Day");
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= schedule.getCalendar().getPeriodsPerDay(); i++) {
             System.out.printf(" %-6s |", "P" + i);
         }
         System.out.println("\n--------------------------------------------------------------------------------------");
 
         Map<String, List<String>> timetable = schedule.getTimetable();
         Map<String, String> shortNames = schedule.getSubjectShortNameMap();
-        for (String day : DAYS_OF_WEEK) {
+        for (String day : schedule.getCalendar().getDayNames()) {
             System.out.printf("| %-10s |", day);
             List<String> periods = timetable.get(day);
             for (String period : periods) {
@@ -7,6 +7,7 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
@@ -52,12 +53,10 @@ import java.io.IOException;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class TimeTableGeneratorUI extends Application {
-    private static final int DAYS_PER_WEEK = 5;
-    private static final int PERIODS_PER_DAY = 8; // Assuming 8 periods + breaks
-    private static final int TOTAL_PERIODS_PER_WEEK = PERIODS_PER_DAY * DAYS_PER_WEEK; // 40
-    private static final List<String> DAYS_OF_WEEK = Arrays.asList("Monday", "Tuesday", "Wednesday", "Thursday", "Friday");
     private static final String PRIMARY_COLOR = "#2C3E50";
     private static final String SECONDARY_COLOR = "#3498DB";
     private static final String ACCENT_COLOR = "#1ABC9C";
@@ -71,12 +70,16 @@ public class TimeTableGeneratorUI extends Application {
     private static final String BREAK_COLOR = "#F8F9FA"; // Light grey for breaks
     private static final String HEADER_COLOR = "#006A6A"; // Teal blue
 
+    // Weekly grid chosen on the input page; generated schedules carry their own
+    private TimetableCalendar calendar = TimetableCalendar.STANDARD;
+
     // Global staff schedule for collision avoidance across years/sections
     private final Map<String, Set<String>> globalStaffSchedule = new HashMap<>();
     private Connection connection;
 
     // --- NEW: Years and per-year subject input containers ---
     private static final List<String> YEARS = Arrays.asList("2nd Year", "3rd Year", "4th Year");
+    private static final List<String> SECTIONS = Arrays.asList("Section A", "Section B");
     private TabPane yearInputTabs;
     // Each year will have its own subject input container and list.
     private final Map<String, VBox> subjectsContainerMap = new HashMap<>();
@@ -90,6 +93,9 @@ public class TimeTableGeneratorUI extends Application {
 
     // Progress and status controls
     private Button generateBtn;
+    private Button cancelBtn;
+    private CheckBox livePreviewBox;
+    private GenerationTask generationTask; // running generation, null when idle
     private ProgressIndicator progressIndicator;
     private Label statusLabel;
 
@@ -143,7 +149,7 @@ public class TimeTableGeneratorUI extends Application {
 
         // Add an empty timetable tab on start
         GridPane emptyGrid = createEmptyTimetableGrid();
-        Label emptyFitnessLabel = new Label("Fitness: N/A");
+        Label emptyFitnessLabel = new Label("Hard violations: N/A   Fitness: N/A");
         TableView<SubjectSummary> emptySummaryTable = createSubjectSummaryTable();
         Tab emptyTab = new Tab("Empty Timetable", createTimetableTabContent("Empty Timetable", "N/A", emptyGrid, emptyFitnessLabel, emptySummaryTable));
         emptyTab.setClosable(false);
@@ -322,14 +328,31 @@ public class TimeTableGeneratorUI extends Application {
         headerLabel.setFont(Font.font("Arial", FontWeight.BOLD, 22));
         headerLabel.setTextFill(Color.web(PRIMARY_COLOR));
 
-        Label instrLabel = new Label(
-                "For each year, add subjects with Full Name, Short Name, Code, Periods, Type, and Staff.\n" +
-                        "Total periods MUST sum to exactly " + TOTAL_PERIODS_PER_WEEK + " per week for that year."
-        );
+        Label instrLabel = new Label(getInputInstructions());
         instrLabel.setWrapText(true);
         instrLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 13));
         instrLabel.setStyle("-fx-text-fill: " + TEXT_COLOR + ";");
 
+        // Weekly grid: days taught and periods per day
+        ComboBox<Integer> daysBox = new ComboBox<>(FXCollections.observableArrayList(5, 6));
+        daysBox.setValue(calendar.getDays());
+        ComboBox<Integer> periodsBox = new ComboBox<>(FXCollections.observableArrayList(8, 9, 10, 11, 12));
+        periodsBox.setValue(calendar.getPeriodsPerDay());
+        EventHandler<ActionEvent> calendarChanged = e -> {
+            calendar = TimetableCalendar.of(daysBox.getValue(), periodsBox.getValue());
+            instrLabel.setText(getInputInstructions());
+        };
+        daysBox.setOnAction(calendarChanged);
+        periodsBox.setOnAction(calendarChanged);
+        Label daysLabel = new Label("Days per week:");
+        daysLabel.setFont(Font.font("Arial", FontWeight.BOLD, 13));
+        daysLabel.setTextFill(Color.web(TEXT_COLOR));
+        Label periodsLabel = new Label("Periods per day:");
+        periodsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 13));
+        periodsLabel.setTextFill(Color.web(TEXT_COLOR));
+        HBox calendarBox = new HBox(10, daysLabel, daysBox, periodsLabel, periodsBox);
+        calendarBox.setAlignment(Pos.CENTER_LEFT);
+
         // Create a TabPane to hold input for each year.
         yearInputTabs = new TabPane();
         for (String year : YEARS) {
@@ -390,7 +413,21 @@ public class TimeTableGeneratorUI extends Application {
         progressIndicator.setVisible(false);
         progressIndicator.setPrefSize(35, 35);
 
-        HBox controlsBox = new HBox(20, generateBtn, progressIndicator);
+        cancelBtn = new Button("Cancel");
+        cancelBtn.setOnAction(e -> cancelGeneration());
+        cancelBtn.setStyle("-fx-background-color: " + WARNING_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+        cancelBtn.setPrefHeight(45);
+        cancelBtn.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+        cancelBtn.setCursor(javafx.scene.Cursor.HAND);
+        cancelBtn.setVisible(false);
+        cancelBtn.setManaged(false);
+
+        livePreviewBox = new CheckBox("Show timetables while generating");
+        livePreviewBox.setSelected(true);
+        livePreviewBox.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        livePreviewBox.setTextFill(Color.web(TEXT_COLOR));
+
+        HBox controlsBox = new HBox(20, generateBtn, cancelBtn, progressIndicator, livePreviewBox);
         controlsBox.setAlignment(Pos.CENTER);
 
         statusLabel = new Label("");
@@ -399,10 +436,16 @@ public class TimeTableGeneratorUI extends Application {
         statusLabel.setAlignment(Pos.CENTER);
         statusLabel.setManaged(false);
 
-        container.getChildren().addAll(headerLabel, instrLabel, new Separator(), yearInputTabs, new Separator(), controlsBox, statusLabel);
+        container.getChildren().addAll(headerLabel, instrLabel, calendarBox, new Separator(), yearInputTabs, new Separator(), controlsBox, statusLabel);
         return container;
     }
 
+    private String getInputInstructions() {
+        return "For each year, add subjects with Full Name, Short Name, Code, Periods, Type, and Staff.\n" +
+                "Total periods MUST sum to exactly " + calendar.getCells() + " per week for that year ("
+                + calendar.getDays() + " days of " + calendar.getPeriodsPerDay() + " periods).";
+    }
+
     // --- NEW METHOD: Save generated timetables to database ---
     private void saveTimetablesToDatabase() {
         // Create table for generated timetables if it doesn't exist
@@ -439,9 +482,11 @@ public class TimeTableGeneratorUI extends Application {
                         String section = sectionEntry.getKey();
                         TimeTableGenerator.Schedule schedule = sectionEntry.getValue();
 
-                        for (int dayIndex = 0; dayIndex < DAYS_OF_WEEK.size(); dayIndex++) {
-                            String day = DAYS_OF_WEEK.get(dayIndex);
-                            List<String> daySchedule = schedule.getTimetable().get(day);
+                        List<String> days = schedule.getCalendar().getDayNames();
+                        Map<String, List<String>> timetable = schedule.getTimetable(); // decodes the whole week
+                        for (int dayIndex = 0; dayIndex < days.size(); dayIndex++) {
+                            String day = days.get(dayIndex);
+                            List<String> daySchedule = timetable.get(day);
 
                             if (daySchedule != null) {
                                 for (int periodIndex = 0; periodIndex < daySchedule.size(); periodIndex++) {
@@ -992,7 +1037,7 @@ public class TimeTableGeneratorUI extends Application {
         dayCol.setMinWidth(90);
         grid.getColumnConstraints().add(dayCol);
 
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= calendar.getPeriodsPerDay(); i++) {
             ColumnConstraints periodCol = new ColumnConstraints();
             periodCol.setPrefWidth(150); // increased from 130
             periodCol.setMinWidth(130);
@@ -1015,7 +1060,7 @@ public class TimeTableGeneratorUI extends Application {
 
 
         // Header: Period labels with time ranges
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= calendar.getPeriodsPerDay(); i++) {
             String timeRange = getTimeRangeLabel(i - 1); // 0-based
             Label periodLabel = createHeaderCell("P" + i + "\n" + timeRange); // line break added
             periodLabel.setWrapText(true);
@@ -1029,11 +1074,11 @@ public class TimeTableGeneratorUI extends Application {
         }
 
         // Fill each row for days
-        for (int i = 0; i < DAYS_OF_WEEK.size(); i++) {
-            Label dayLabel = createDayCell(DAYS_OF_WEEK.get(i));
+        for (int i = 0; i < calendar.getDays(); i++) {
+            Label dayLabel = createDayCell(calendar.getDayNames().get(i));
             grid.add(dayLabel, 0, i + 1);
 
-            for (int j = 1; j <= PERIODS_PER_DAY; j++) {
+            for (int j = 1; j <= calendar.getPeriodsPerDay(); j++) {
                 Label emptyCell = createEmptyDataCell();
                 grid.add(emptyCell, j, i + 1);
             }
@@ -1206,9 +1251,9 @@ public class TimeTableGeneratorUI extends Application {
 
                 totalPeriods += periods;
             }
-            if (totalPeriods != TOTAL_PERIODS_PER_WEEK) {
+            if (totalPeriods != calendar.getCells()) {
                 valid = false;
-                showAlert("Input Error", "For " + year + ", total periods must equal exactly " + TOTAL_PERIODS_PER_WEEK, Alert.AlertType.ERROR);
+                showAlert("Input Error", "For " + year + ", total periods must equal exactly " + calendar.getCells(), Alert.AlertType.ERROR);
                 break; // Stop validation for subsequent years if one fails
             }
             allSubjectsWithPeriods.put(year, subjectPeriods);
@@ -1225,6 +1270,9 @@ public class TimeTableGeneratorUI extends Application {
         // --- 2. Disable controls and clear previous results ---
         generateBtn.setDisable(true);
         generateBtn.setText("Generating...");
+        cancelBtn.setDisable(false);
+        cancelBtn.setVisible(true);
+        cancelBtn.setManaged(true);
         progressIndicator.setVisible(true);
         statusLabel.setText("Generating timetables for all years...");
         statusLabel.setManaged(true);
@@ -1233,81 +1281,272 @@ public class TimeTableGeneratorUI extends Application {
         generatedSchedules.clear(); // Clear previous schedules
 
 
-        // --- 3. For each year generate Section A and Section B timetables.
-        // (The TimeTableGenerator.generateSchedule(...) method is used here.)
-        // For each generated timetable we create a grid, a fitness label and a summary table.
-        // In a real system you might run these in background threads. For brevity we do it here sequentially.
-
+        // --- 3. Generate Section A and Section B timetables for every year.
+        // All six sections are generated at the same time; staff clashes between them are resolved
+        // through a shared occupancy index (see TimeTableGenerator.generateSchedulesConcurrently).
+        // Generation runs on a background task so the window stays responsive and can be cancelled.
+        List<SectionInput> sectionInputs = new ArrayList<>();
         for (String year : YEARS) {
-            Map<String, Integer> subjectsCopy = allSubjectsWithPeriods.get(year);
-            Map<String, String> staffCopy = allSubjectStaff.get(year);
-            Map<String, Boolean> labCopy = allIsLab.get(year);
-            Map<String, String> shortNameCopy = allSubjectShortName.get(year);
-            Map<String, String> codeCopy = allSubjectCode.get(year);
-            String academicYear = academicYears.get(year);
-
-            // Initialize storage for this year
-            generatedSchedules.put(year, new HashMap<>());
-
-            // ----------------- SECTION A -----------------
-            statusLabel.setText("Generating " + year + " Section A timetable...");
-            TimeTableGenerator.Schedule scheduleA = TimeTableGenerator.generateScheduleGA(
-                    subjectsCopy,
-                    staffCopy,
-                    labCopy,
-                    shortNameCopy,
-                    codeCopy,
-                    globalStaffSchedule,
-                    globalStaffSectionMap,
-                    "Section A",
-                    year
-            );
-            generatedSchedules.get(year).put("Section A", scheduleA);
-            GridPane gridA = createEmptyTimetableGrid();
-            updateTimetableGrid(gridA, scheduleA);
-            Label fitnessA = new Label("Fitness: " + scheduleA.getFitness());
-            TableView<SubjectSummary> summaryTableA = createSubjectSummaryTable();
-            updateSummaryTable(summaryTableA, subjectsCopy, staffCopy, shortNameCopy, codeCopy);
-            String tabAName = year + " - Section A";
-            Tab tabA = new Tab(tabAName, createTimetableTabContent(tabAName, academicYear, gridA, fitnessA, summaryTableA));
-            tabA.setClosable(false);
-            resultTabs.getTabs().add(tabA);
-
-            // ----------------- SECTION B -----------------
-            statusLabel.setText("Generating " + year + " Section B timetable...");
-            TimeTableGenerator.Schedule scheduleB = TimeTableGenerator.generateScheduleGA(
-                    subjectsCopy,
-                    staffCopy,
-                    labCopy,
-                    shortNameCopy,
-                    codeCopy,
-                    globalStaffSchedule,
-                    globalStaffSectionMap,
-                    "Section B",
-                    year
-            );
-            generatedSchedules.get(year).put("Section B", scheduleB);
-            GridPane gridB = createEmptyTimetableGrid();
-            updateTimetableGrid(gridB, scheduleB);
-            Label fitnessB = new Label("Fitness: " + scheduleB.getFitness());
-            TableView<SubjectSummary> summaryTableB = createSubjectSummaryTable();
-            updateSummaryTable(summaryTableB, subjectsCopy, staffCopy, shortNameCopy, codeCopy);
-            String tabBName = year + " - Section B";
-            Tab tabB = new Tab(tabBName, createTimetableTabContent(tabBName, academicYear, gridB, fitnessB, summaryTableB));
-            tabB.setClosable(false);
-            resultTabs.getTabs().add(tabB);
+            for (String section : SECTIONS) {
+                sectionInputs.add(new SectionInput(year, section,
+                        allSubjectsWithPeriods.get(year),
+                        allSubjectStaff.get(year),
+                        allIsLab.get(year),
+                        allSubjectShortName.get(year),
+                        allSubjectCode.get(year),
+                        calendar));
+            }
+        }
+        // With the live preview, the result tabs exist from the start and show each section's best timetable so far
+        List<ResultView> views = livePreviewBox.isSelected() ? createResultTabs(sectionInputs, academicYears) : null;
+        GenerationTask task = new GenerationTask(sectionInputs, views);
+        task.setOnSucceeded(e -> {
+            finishGeneration(task, "Timetable generation complete!");
+            List<TimeTableGenerator.Schedule> schedules = task.getValue();
+            List<ResultView> finalViews = views != null ? views : createResultTabs(sectionInputs, academicYears);
+            for (int i = 0; i < sectionInputs.size(); i++) {
+                SectionInput input = sectionInputs.get(i);
+                TimeTableGenerator.Schedule schedule = schedules.get(i);
+                generatedSchedules.computeIfAbsent(input.getYear(), k -> new HashMap<>()).put(input.getSection(), schedule);
+                showSchedule(finalViews.get(i), schedule, "Hard violations: "
+                        + schedule.countHardViolations() + "   Fitness: " + schedule.getFitness());
+            }
+        });
+        task.setOnCancelled(e -> {
+            if (views != null && task.keepBestSoFar()) {
+                finishGeneration(task, "Timetable generation stopped. Showing the best timetables found so far.");
+            } else {
+                finishGeneration(task, "Timetable generation cancelled.");
+            }
+        });
+        task.setOnFailed(e -> {
+            finishGeneration(task, "Timetable generation failed.");
+            // IllegalArgumentException: subjects that cannot fit in a timetable at all, e.g. a lab longer than a day
+            Throwable error = task.getException();
+            showAlert("Generation Error", error.getMessage() != null ? error.getMessage() : error.toString(),
+                    Alert.AlertType.ERROR);
+        });
+        statusLabel.textProperty().bind(task.messageProperty());
+        generationTask = task;
+        task.startLiveRedraw();
+
+        Thread thread = new Thread(task, "timetable-generation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Generates the given sections off the JavaFX Application Thread. Progress (generation and best
+     * fitness of every section) is published as the task message at most every PROGRESS_INTERVAL_NANOS;
+     * cancelling stops the engine at its next generation. With result views, every section's newest
+     * best timetable is drawn into its view at most every LIVE_REDRAW_MILLIS: the engine threads only
+     * replace the pending timetable, and a timeline on the FX thread draws whatever is pending, so
+     * intermediate improvements are coalesced.
+     */
+    private final class GenerationTask extends Task<List<TimeTableGenerator.Schedule>> {
+
+        private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L;
+        private static final double LIVE_REDRAW_MILLIS = 100;
+
+        private final List<SectionInput> sections;
+        private final List<ResultView> views; // null without the live preview
+        private final Map<String, Integer> positions = new HashMap<>();
+        private final AtomicReferenceArray<GenerationStats> latest;
+        private final AtomicReferenceArray<LiveBest> pending; // newest best not drawn yet, per section
+        private final LiveBest[] drawn;                       // FX thread only
+        private final AtomicLong lastUpdate = new AtomicLong(System.nanoTime());
+        private Timeline liveRedraw;
+        // The task's own bookings, copied into globalStaffSchedule only if it succeeds
+        private final Map<String, Set<String>> staffSchedule = new HashMap<>();
+
+        GenerationTask(List<SectionInput> sections, List<ResultView> views) {
+            this.sections = sections;
+            this.views = views;
+            this.latest = new AtomicReferenceArray<>(sections.size());
+            this.pending = new AtomicReferenceArray<>(sections.size());
+            this.drawn = new LiveBest[sections.size()];
+            for (int i = 0; i < sections.size(); i++) {
+                positions.put(sections.get(i).toString(), i);
+            }
+            updateMessage("Generating timetables for all years...");
+        }
+
+        @Override
+        protected List<TimeTableGenerator.Schedule> call() {
+            GAConfig config = new GAConfig()
+                    .setCancellation(this::isCancelled)
+                    .setSearchListener(new SearchListener() {
+                        @Override
+                        public void onGeneration(GenerationStats stats) {
+                            GenerationTask.this.onGeneration(stats);
+                        }
+
+                        @Override
+                        public void onNewBest(GenerationStats stats, TimeTableGenerator.Schedule best) {
+                            GenerationTask.this.onNewBest(stats, best);
+                        }
+                    });
+            return TimeTableGenerator.generateSchedulesConcurrently(sections, staffSchedule, config);
+        }
+
+        // Called from the section threads; keeps the latest stats and publishes them at a throttled rate
+        private void onGeneration(GenerationStats stats) {
+            Integer position = positions.get(stats.getSection());
+            if (position == null) return;
+            latest.set(position, stats);
+            long now = System.nanoTime();
+            long last = lastUpdate.get();
+            if (now - last < PROGRESS_INTERVAL_NANOS || !lastUpdate.compareAndSet(last, now)) return;
+            StringBuilder message = new StringBuilder("Generating timetables for all years... (Cancel to stop)");
+            for (int i = 0; i < sections.size(); i++) {
+                GenerationStats sectionStats = latest.get(i);
+                message.append('\n').append(sections.get(i)).append(": ");
+                if (sectionStats == null) {
+                    message.append("waiting");
+                } else {
+                    message.append("generation ").append(sectionStats.getGeneration())
+                            .append(", best fitness ").append(sectionStats.getBestFitness());
+                }
+            }
+            updateMessage(message.toString());
+        }
+
+        // Called from the section threads; only the newest best of each section is kept for the next redraw
+        private void onNewBest(GenerationStats stats, TimeTableGenerator.Schedule best) {
+            Integer position = positions.get(stats.getSection());
+            if (views == null || position == null) return;
+            pending.set(position, new LiveBest(stats, best));
+        }
+
+        // FX thread: draws the pending timetables every LIVE_REDRAW_MILLIS until the task ends
+        void startLiveRedraw() {
+            if (views == null) return;
+            liveRedraw = new Timeline(new KeyFrame(Duration.millis(LIVE_REDRAW_MILLIS), e -> drawPending()));
+            liveRedraw.setCycleCount(Animation.INDEFINITE);
+            liveRedraw.play();
         }
 
-        statusLabel.setText("Timetable generation complete!");
+        void stopLiveRedraw() {
+            if (liveRedraw != null) {
+                liveRedraw.stop();
+                liveRedraw = null;
+            }
+        }
+
+        private void drawPending() {
+            for (int i = 0; i < sections.size(); i++) {
+                LiveBest best = pending.getAndSet(i, null);
+                if (best == null) continue;
+                drawn[i] = best;
+                showSchedule(views.get(i), best.schedule, "Hard violations: "
+                        + best.stats.getBestHardViolations() + "   Fitness: " + best.stats.getBestFitness()
+                        + "   (best so far, generation " + best.stats.getGeneration() + ")");
+            }
+        }
+
+        /**
+         * FX thread, after cancelling: draws the last timetables and keeps them as the generated ones
+         * if every section has one, so they can be saved or exported. Returns whether it did.
+         */
+        boolean keepBestSoFar() {
+            drawPending();
+            for (LiveBest best : drawn) {
+                if (best == null) return false;
+            }
+            for (int i = 0; i < sections.size(); i++) {
+                SectionInput input = sections.get(i);
+                generatedSchedules.computeIfAbsent(input.getYear(), k -> new HashMap<>())
+                        .put(input.getSection(), drawn[i].schedule);
+                showSchedule(views.get(i), drawn[i].schedule, "Hard violations: "
+                        + drawn[i].stats.getBestHardViolations() + "   Fitness: " + drawn[i].stats.getBestFitness()
+                        + "   (stopped early at generation " + drawn[i].stats.getGeneration() + ")");
+            }
+            return true;
+        }
+
+        @Override
+        protected void succeeded() {
+            globalStaffSchedule.clear(); // bookings of a previous generation no longer apply
+            globalStaffSchedule.putAll(staffSchedule);
+            super.succeeded();
+        }
+    }
+
+    // A section's best timetable so far, with the statistics of the generation that found it
+    private static final class LiveBest {
+        private final GenerationStats stats;
+        private final TimeTableGenerator.Schedule schedule;
+
+        LiveBest(GenerationStats stats, TimeTableGenerator.Schedule schedule) {
+            this.stats = stats;
+            this.schedule = schedule;
+        }
+    }
+
+    // The parts of a section's result tab that change when a timetable is shown in it
+    private static final class ResultView {
+        private final GridPane grid;
+        private final Label fitnessLabel;
+
+        ResultView(GridPane grid, Label fitnessLabel) {
+            this.grid = grid;
+            this.fitnessLabel = fitnessLabel;
+        }
+    }
+
+    private void cancelGeneration() {
+        if (generationTask != null) {
+            cancelBtn.setDisable(true);
+            // Without interrupting: the engine notices at its next generation and winds down on its own
+            generationTask.cancel(false);
+        }
+    }
+
+    // Restores the controls after a generation task ended, however it ended
+    private void finishGeneration(GenerationTask task, String status) {
+        task.stopLiveRedraw();
+        statusLabel.textProperty().unbind();
+        statusLabel.setText(status);
+        if (generationTask == task) {
+            generationTask = null;
+        }
         progressIndicator.setVisible(false);
+        cancelBtn.setVisible(false);
+        cancelBtn.setManaged(false);
         generateBtn.setDisable(false);
         generateBtn.setText("Generate All Timetables");
     }
 
+    // Creates one result tab per section, with an empty grid, a fitness label and the subject summary
+    private List<ResultView> createResultTabs(List<SectionInput> sectionInputs, Map<String, String> academicYears) {
+        List<ResultView> views = new ArrayList<>(sectionInputs.size());
+        for (SectionInput input : sectionInputs) {
+            String year = input.getYear();
+            GridPane grid = createEmptyTimetableGrid();
+            Label fitnessLabel = new Label("Waiting for the first timetable...");
+            TableView<SubjectSummary> summaryTable = createSubjectSummaryTable();
+            updateSummaryTable(summaryTable, input.getSubjectsWithPeriods(), input.getSubjectStaffMap(),
+                    input.getSubjectShortNameMap(), input.getSubjectCodeMap());
+            String tabName = year + " - " + input.getSection();
+            Tab tab = new Tab(tabName, createTimetableTabContent(tabName, academicYears.get(year), grid, fitnessLabel, summaryTable));
+            tab.setClosable(false);
+            resultTabs.getTabs().add(tab);
+            views.add(new ResultView(grid, fitnessLabel));
+        }
+        return views;
+    }
+
+    // Draws a timetable into a section's result tab
+    private void showSchedule(ResultView view, TimeTableGenerator.Schedule schedule, String fitnessText) {
+        updateTimetableGrid(view.grid, schedule);
+        view.fitnessLabel.setText(fitnessText);
+    }
+
     // ----------------- Update Timetable Grid -----------------
 // This method fills the given grid with subject abbreviations based on the schedule.
     private void updateTimetableGrid(GridPane grid, TimeTableGenerator.Schedule schedule) {
         if (schedule == null) return;
+        TimetableCalendar scheduleCalendar = schedule.getCalendar();
 
         grid.getChildren().clear(); // Clear all for full redraw
         grid.getColumnConstraints().clear(); // Clear old constraints
@@ -1324,7 +1563,7 @@ public class TimeTableGeneratorUI extends Application {
         dayCol.setMinWidth(90);
         grid.getColumnConstraints().add(dayCol);
 
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= scheduleCalendar.getPeriodsPerDay(); i++) {
             ColumnConstraints periodCol = new ColumnConstraints();
             periodCol.setPrefWidth(150);
             periodCol.setMinWidth(130);
@@ -1346,7 +1585,7 @@ public class TimeTableGeneratorUI extends Application {
         grid.add(dayHeader, 0, 0);
 
         // === Period Headers ===
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= scheduleCalendar.getPeriodsPerDay(); i++) {
             String timeRange = getTimeRangeLabel(i - 1);
             Label periodLabel = new Label("P" + i + "\n" + timeRange);
             periodLabel.setWrapText(true);
@@ -1363,8 +1602,8 @@ public class TimeTableGeneratorUI extends Application {
         // === Fill each row for days ===
         Map<String, List<String>> timetable = schedule.getTimetable();
 
-        for (int i = 0; i < DAYS_OF_WEEK.size(); i++) {
-            String day = DAYS_OF_WEEK.get(i);
+        for (int i = 0; i < scheduleCalendar.getDays(); i++) {
+            String day = scheduleCalendar.getDayNames().get(i);
             List<String> daySchedule = timetable.getOrDefault(day, new ArrayList<>());
 
             // Day Header
@@ -1377,7 +1616,7 @@ public class TimeTableGeneratorUI extends Application {
             grid.add(dayLabel, 0, i + 1);
 
             // Period Cells
-            for (int j = 0; j < PERIODS_PER_DAY; j++) {
+            for (int j = 0; j < scheduleCalendar.getPeriodsPerDay(); j++) {
                 String subjectName = (j < daySchedule.size()) ? daySchedule.get(j) : null;
                 Label cell;
                 String bgColor;
@@ -1470,9 +1709,11 @@ public class TimeTableGeneratorUI extends Application {
                     String subjectCode = rs.getString("subject_code");
 
                     String yearSectionKey = year + " - " + section;
-                    staffSchedule.computeIfAbsent(yearSectionKey, k -> new HashMap<>())
-                            .computeIfAbsent(day, k -> new ArrayList<>(Collections.nCopies(PERIODS_PER_DAY, null)))
-                            .set(periodIndex, subjectCode); // Use subject code
+                    List<String> periods = staffSchedule.computeIfAbsent(yearSectionKey, k -> new HashMap<>())
+                            .computeIfAbsent(day, k -> new ArrayList<>(Collections.nCopies(calendar.getPeriodsPerDay(), null)));
+                    if (periodIndex < periods.size()) {
+                        periods.set(periodIndex, subjectCode); // Use subject code
+                    }
                 }
 
                 // Display the staff's timetable
@@ -1533,7 +1774,7 @@ public class TimeTableGeneratorUI extends Application {
         dayCol.setMinWidth(90);
         grid.getColumnConstraints().add(dayCol);
 
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= calendar.getPeriodsPerDay(); i++) {
             ColumnConstraints periodCol = new ColumnConstraints();
             periodCol.setPrefWidth(150);
             periodCol.setMinWidth(130);
@@ -1557,7 +1798,7 @@ public class TimeTableGeneratorUI extends Application {
         grid.add(dayHeader, 0, 0);
 
         // Period Headers
-        for (int i = 1; i <= PERIODS_PER_DAY; i++) {
+        for (int i = 1; i <= calendar.getPeriodsPerDay(); i++) {
             String timeRange = getTimeRangeLabel(i - 1);
             Label periodLabel = createHeaderCell("P" + i + "\n" + timeRange);
             periodLabel.setWrapText(true);
@@ -1571,13 +1812,13 @@ public class TimeTableGeneratorUI extends Application {
         }
 
         // Timetable Data
-        for (int i = 0; i < DAYS_OF_WEEK.size(); i++) {
-            String day = DAYS_OF_WEEK.get(i);
+        for (int i = 0; i < calendar.getDays(); i++) {
+            String day = calendar.getDayNames().get(i);
             Label dayLabel = createDayCell(day);
             grid.add(dayLabel, 0, i + 1);
 
-            List<String> periods = daySchedule.getOrDefault(day, Collections.nCopies(PERIODS_PER_DAY, null));
-            for (int j = 0; j < PERIODS_PER_DAY; j++) {
+            List<String> periods = daySchedule.getOrDefault(day, Collections.nCopies(calendar.getPeriodsPerDay(), null));
+            for (int j = 0; j < calendar.getPeriodsPerDay(); j++) {
                 Label cell;
                 String subjectCode = periods.get(j);
                 String color;
@@ -1719,19 +1960,22 @@ public class TimeTableGeneratorUI extends Application {
                         // Create header row for periods
                         Row headerRow = sheet.createRow(0);
                         headerRow.createCell(0).setCellValue("Day/Period");
-                        for (int i = 0; i < PERIODS_PER_DAY; i++) {
+                        TimetableCalendar scheduleCalendar = schedule.getCalendar();
+                        int periodsPerDay = scheduleCalendar.getPeriodsPerDay();
+                        for (int i = 0; i < periodsPerDay; i++) {
                             String timeRange = getTimeRangeLabel(i);
                             headerRow.createCell(i + 1).setCellValue("P" + (i + 1) + "\n" + timeRange);
                         }
 
                         // Populate timetable data
-                        for (int i = 0; i < DAYS_OF_WEEK.size(); i++) {
-                            String day = DAYS_OF_WEEK.get(i);
+                        Map<String, List<String>> timetable = schedule.getTimetable(); // decodes the whole week
+                        for (int i = 0; i < scheduleCalendar.getDays(); i++) {
+                            String day = scheduleCalendar.getDayNames().get(i);
                             Row row = sheet.createRow(i + 1);
                             row.createCell(0).setCellValue(day); // Day label
 
-                            List<String> daySchedule = schedule.getTimetable().getOrDefault(day, Collections.nCopies(PERIODS_PER_DAY, null));
-                            for (int j = 0; j < PERIODS_PER_DAY; j++) {
+                            List<String> daySchedule = timetable.getOrDefault(day, Collections.nCopies(periodsPerDay, null));
+                            for (int j = 0; j < periodsPerDay; j++) {
                                 String subjectName = daySchedule.get(j);
                                 String cellContent;
 //                                if (isBreakOrLunch(j)) {
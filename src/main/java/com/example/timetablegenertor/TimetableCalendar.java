@@ -0,0 +1,119 @@
+package com.example.timetablegenertor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The weekly grid a timetable is laid out on: which days are taught and how many periods each
+ * day has. Cell {@code day * periodsPerDay + period} of a genome is one period of the week, and
+ * the same numbering is used for the bits of staff busy masks.
+ * <p>
+ * Week masks need {@link #words()} longs. The original 5 x 8 week and anything else with at
+ * most 64 cells is {@linkplain #isCompact() compact}: a mask is a single {@code long}, which the
+ * engine's hot paths special-case. Larger grids, such as six days of 12 periods, use several
+ * words per mask. Day-level work always uses one {@code long} per day with the day's periods in
+ * the low bits (see {@link SubjectIndex#staffBusyDay}), so it does not depend on the grid size.
+ * Immutable.
+ */
+public final class TimetableCalendar {
+
+    private static final List<String> DAY_NAMES = Arrays.asList("Monday", "Tuesday", "Wednesday", "Thursday",
+            "Friday", "Saturday", "Sunday");
+
+    /** Most periods in a day; lab runs and per-day counts are kept in bytes and days as bit rows. */
+    static final int MAX_PERIODS_PER_DAY = 16;
+
+    /** Monday to Friday, 8 periods a day: the grid the generator always used. */
+    public static final TimetableCalendar STANDARD = new TimetableCalendar(5, 8);
+
+    private final int days;
+    private final int periodsPerDay;
+    private final int cells;
+    private final int words;
+    private final long dayMask;
+    private final List<String> dayNames;
+
+    private TimetableCalendar(int days, int periodsPerDay) {
+        if (days < 1 || days > DAY_NAMES.size()) {
+            throw new IllegalArgumentException("Days per week must be between 1 and " + DAY_NAMES.size() + ".");
+        }
+        if (periodsPerDay < 1 || periodsPerDay > MAX_PERIODS_PER_DAY) {
+            throw new IllegalArgumentException("Periods per day must be between 1 and " + MAX_PERIODS_PER_DAY + ".");
+        }
+        this.days = days;
+        this.periodsPerDay = periodsPerDay;
+        this.cells = days * periodsPerDay;
+        this.words = (cells + Long.SIZE - 1) / Long.SIZE;
+        this.dayMask = (1L << periodsPerDay) - 1;
+        this.dayNames = Collections.unmodifiableList(DAY_NAMES.subList(0, days));
+    }
+
+    /** A week of the given number of days, starting on Monday, each with the given number of periods. */
+    public static TimetableCalendar of(int days, int periodsPerDay) {
+        if (days == STANDARD.days && periodsPerDay == STANDARD.periodsPerDay) {
+            return STANDARD;
+        }
+        return new TimetableCalendar(days, periodsPerDay);
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getPeriodsPerDay() {
+        return periodsPerDay;
+    }
+
+    /** Periods in the whole week, the length of a genome. */
+    public int getCells() {
+        return cells;
+    }
+
+    public List<String> getDayNames() {
+        return dayNames;
+    }
+
+    /** Longs per week mask. */
+    int words() {
+        return words;
+    }
+
+    /** True if a week mask fits in one long. */
+    boolean isCompact() {
+        return words == 1;
+    }
+
+    /** The periods of one day as the low bits of a long. */
+    long dayMask() {
+        return dayMask;
+    }
+
+    /** First period of the second half of a day; labs should not cross it. */
+    int midPeriod() {
+        return periodsPerDay / 2;
+    }
+
+    /** Mask of the day's periods [from, from + count) in the low bits of a day mask. */
+    static long block(int from, int count) {
+        return ((1L << count) - 1) << from;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof TimetableCalendar)) return false;
+        TimetableCalendar that = (TimetableCalendar) other;
+        return days == that.days && periodsPerDay == that.periodsPerDay;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * days + periodsPerDay;
+    }
+
+    @Override
+    public String toString() {
+        return days + " days x " + periodsPerDay + " periods";
+    }
+}
@@ -0,0 +1,461 @@
+package com.example.timetablegenertor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP service that generates timetables for other tools, without the JavaFX front end.
+ * <p>
+ * {@code POST /generate} takes one department as JSON and answers with every section's timetable,
+ * its fitness and a breakdown of the fitness per constraint:
+ * <pre>
+ * {"days": 5, "periodsPerDay": 8, "seed": 42, "timeLimitMillis": 2000,
+ *  "sections": [{"programme": "CSE", "year": "2nd Year", "section": "A",
+ *                "subjects": [{"name": "C Programming", "shortName": "CP", "code": "CS201",
+ *                              "periods": 8, "lab": false, "staff": "Nalina"}]}]}
+ * </pre>
+ * A single section may also be sent on its own, with {@code year}, {@code section} and
+ * {@code subjects} at the top level. Everything but the year, section and subjects is optional.
+ * The time limit covers the whole request and is shared equally by its sections.
+ * Malformed input is answered with 400, a department that cannot be timetabled with 422 and a
+ * full solver queue with 503. {@code GET /health} reports the load of the solver pool.
+ * <p>
+ * Requests are read and answered on virtual threads when the JVM has them (Java 21 and later) and
+ * on a small pool of daemon threads otherwise. Solving runs on a fixed pool of solver threads,
+ * one request at a time per thread, behind a bounded queue: a request only parses its body and
+ * enqueues the job, and the response is sent when the job completes, so no thread waits on the
+ * solver however many requests are in flight.
+ */
+public final class TimetableService {
+
+    static final int DEFAULT_PORT = 8080;
+
+    // Requests are small; anything larger is refused before it is parsed
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    // How long stop() waits for cancelled searches to finish and their answers to be sent
+    private static final long STOP_GRACE_SECONDS = 5;
+
+    private final HttpServer server;
+    private final ExecutorService requests;
+    private final ThreadPoolExecutor solvers;
+    private final long maxTimeLimitMillis;
+    private volatile boolean stopping;
+
+    /**
+     * @param address            where to listen; port 0 picks a free port
+     * @param solverThreads      requests solved at the same time
+     * @param queueCapacity      requests waiting for a solver before new ones are refused
+     * @param maxTimeLimitMillis search time of a request that sets none, and the most a request may ask for
+     */
+    public TimetableService(InetSocketAddress address, int solverThreads, int queueCapacity, long maxTimeLimitMillis)
+            throws IOException {
+        if (solverThreads < 1) {
+            throw new IllegalArgumentException("Solver threads must be at least 1.");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1.");
+        }
+        if (maxTimeLimitMillis < 1) {
+            throw new IllegalArgumentException("Time limit must be at least 1 ms.");
+        }
+        this.maxTimeLimitMillis = maxTimeLimitMillis;
+        AtomicInteger solverCount = new AtomicInteger();
+        this.solvers = new ThreadPoolExecutor(solverThreads, solverThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "timetable-solver-" + solverCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.requests = requestExecutor();
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(requests);
+        server.createContext("/generate", this::generate);
+        server.createContext("/health", this::health);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = DEFAULT_PORT;
+        int solverThreads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = 64;
+        long timeLimit = 10_000L;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i] + ".");
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--host":
+                    host = value;
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--solvers":
+                    solverThreads = Integer.parseInt(value);
+                    break;
+                case "--queue":
+                    queueCapacity = Integer.parseInt(value);
+                    break;
+                case "--time-limit":
+                    timeLimit = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]
+                            + ". Options: --host, --port, --solvers, --queue, --time-limit <ms>.");
+            }
+        }
+        TimetableService service = new TimetableService(new InetSocketAddress(host, port), solverThreads,
+                queueCapacity, timeLimit);
+        service.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop, "timetable-service-stop"));
+        System.out.println("Timetable service listening on http://" + host + ":" + service.getPort()
+                + " with " + solverThreads + " solvers");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Cancels the searches in progress, answers the queued requests with 503 and stops listening once
+     * every waiting client has been answered, or after a few seconds.
+     */
+    public void stop() {
+        stopping = true; // running searches stop as CANCELLED and are answered with what they found
+        solvers.shutdown(); // not shutdownNow(): interrupting a search would fail it instead of cancelling it
+        List<Runnable> queued = new ArrayList<>();
+        solvers.getQueue().drainTo(queued);
+        for (Runnable job : queued) {
+            ((SolveJob) job).refuse();
+        }
+        try {
+            solvers.awaitTermination(STOP_GRACE_SECONDS, TimeUnit.SECONDS);
+            requests.shutdown();
+            requests.awaitTermination(STOP_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.stop(0);
+    }
+
+    /** The port the service listens on, useful after binding port 0. */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Virtual threads are only available from Java 21, while the build targets 17
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Request threads only parse and enqueue, so a few pooled ones keep up with many requests
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "timetable-http-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void health(HttpExchange exchange) {
+        if (!exchange.getRequestURI().getPath().equals("/health")) {
+            respond(exchange, 404, error("Not found."));
+            return;
+        }
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("status", stopping ? "stopping" : "ok");
+        health.put("solvers", solvers.getMaximumPoolSize());
+        health.put("solving", solvers.getActiveCount());
+        health.put("queued", solvers.getQueue().size());
+        health.put("queueCapacity", solvers.getQueue().size() + solvers.getQueue().remainingCapacity());
+        respond(exchange, 200, health);
+    }
+
+    private void generate(HttpExchange exchange) {
+        if (!exchange.getRequestURI().getPath().equals("/generate")) {
+            respond(exchange, 404, error("Not found."));
+            return;
+        }
+        if (!exchange.getRequestMethod().equals("POST")) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, 405, error("Use POST."));
+            return;
+        }
+        Department department;
+        GAConfig config;
+        try {
+            Map<String, Object> body = object(Json.parse(readBody(exchange)), "request");
+            department = department(body);
+            config = config(body, department.size());
+        } catch (IOException e) {
+            respond(exchange, 400, error("Could not read the request: " + e.getMessage()));
+            return;
+        } catch (IllegalArgumentException e) {
+            respond(exchange, e instanceof BodyTooLargeException ? 413 : 400, error(e.getMessage()));
+            return;
+        }
+        SolveJob job = new SolveJob(department, config);
+        try {
+            solvers.execute(job);
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, error(stopping ? "The service is stopping." : "All solvers are busy, try again later."));
+            return;
+        }
+        job.result.whenCompleteAsync((response, failure) -> {
+            if (failure == null) {
+                respond(exchange, 200, response);
+            } else if (failure instanceof RejectedExecutionException) {
+                respond(exchange, 503, error(failure.getMessage())); // still queued when the service stopped
+            } else if (failure instanceof IllegalArgumentException) {
+                respond(exchange, 422, error(failure.getMessage())); // infeasible input
+            } else {
+                System.err.println("Generation failed: " + failure);
+                respond(exchange, 500, error("Generation failed."));
+            }
+        }, this::answer);
+    }
+
+    // Sends answers on a request thread, or on the calling thread once the request threads are shut down
+    private void answer(Runnable response) {
+        try {
+            requests.execute(response);
+        } catch (RejectedExecutionException e) {
+            response.run();
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new BodyTooLargeException();
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Department department(Map<String, Object> body) {
+        TimetableCalendar calendar = TimetableCalendar.of(
+                integer(body, "days", TimetableCalendar.STANDARD.getDays()),
+                integer(body, "periodsPerDay", TimetableCalendar.STANDARD.getPeriodsPerDay()));
+        List<Object> sections = body.containsKey("sections") ? array(body.get("sections"), "sections")
+                : Collections.singletonList(body);
+        if (sections.isEmpty()) {
+            throw new IllegalArgumentException("sections cannot be empty.");
+        }
+        Department department = new Department(calendar);
+        for (Object element : sections) {
+            Map<String, Object> section = object(element, "section");
+            BatchGenerator.SectionBuilder builder = new BatchGenerator.SectionBuilder(
+                    text(section, "programme", false), text(section, "year", true), text(section, "section", true));
+            for (Object subjectElement : array(section.get("subjects"), "subjects")) {
+                Map<String, Object> subject = object(subjectElement, "subject");
+                Object lab = subject.getOrDefault("lab", Boolean.FALSE);
+                if (!(lab instanceof Boolean)) {
+                    throw new IllegalArgumentException("lab must be true or false.");
+                }
+                builder.add(text(subject, "name", true), text(subject, "shortName", false),
+                        text(subject, "code", false), integer(subject, "periods", 0), (Boolean) lab,
+                        text(subject, "staff", true));
+            }
+            department.addSection(builder.build(calendar));
+        }
+        return department;
+    }
+
+    // One solver thread per request: sections run one after another and fitness is evaluated inline, so each
+    // section gets an equal share of the request's time limit, counted from when it starts
+    private GAConfig config(Map<String, Object> body, int sections) {
+        long timeLimit = number(body, "timeLimitMillis", maxTimeLimitMillis);
+        if (timeLimit < 1) {
+            // 0 would mean no limit to GAConfig, letting a request hold a solver for as long as it likes
+            throw new IllegalArgumentException("timeLimitMillis must be at least 1.");
+        }
+        GAConfig config = new GAConfig()
+                .setWorkerCount(1)
+                .setTimeLimitMillis(Math.max(1, Math.min(timeLimit, maxTimeLimitMillis) / sections))
+                .setCancellation(() -> stopping);
+        if (body.get("seed") != null) {
+            config.setSeed(number(body, "seed", 0));
+        }
+        return config;
+    }
+
+    private static Map<String, Object> solve(Department department, GAConfig config) {
+        long startTime = System.nanoTime();
+        List<GAResult> results = ConcurrentSectionScheduler.generate(department.getSections(), new HashMap<>(), config);
+        List<Object> sections = new ArrayList<>(results.size());
+        boolean feasible = true;
+        for (int i = 0; i < results.size(); i++) {
+            Map<String, Object> section = section(department.getSections().get(i), results.get(i), config);
+            feasible &= (Integer) section.get("hardViolations") == 0;
+            sections.add(section);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("feasible", feasible);
+        response.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+        response.put("sections", sections);
+        return response;
+    }
+
+    private static Map<String, Object> section(SectionInput input, GAResult result, GAConfig config) {
+        TimeTableGenerator.Schedule schedule = result.getSchedule();
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("programme", input.getProgramme());
+        section.put("year", input.getYear());
+        section.put("section", input.getSection());
+        section.put("hardViolations", schedule.countHardViolations());
+        section.put("fitness", schedule.getFitness());
+        section.put("generations", result.getGenerations());
+        section.put("stopReason", result.getStopReason().name());
+        section.put("elapsedMillis", result.getElapsedMillis());
+        section.put("seed", result.getSeed());
+
+        List<Object> breakdown = new ArrayList<>();
+        ConstraintSet constraints = config.getConstraints();
+        for (Map.Entry<String, double[]> entry
+                : TimeTableGenerator.fitnessBreakdown(schedule, constraints).entrySet()) {
+            Constraint constraint = constraints.get(entry.getKey());
+            Map<String, Object> rule = new LinkedHashMap<>();
+            rule.put("constraint", entry.getKey());
+            rule.put("hard", constraint.isHard());
+            rule.put("weight", constraint.getWeight());
+            rule.put("score", entry.getValue()[0]);
+            rule.put("violations", (int) entry.getValue()[1]);
+            breakdown.add(rule);
+        }
+        section.put("breakdown", breakdown);
+
+        Map<String, Object> timetable = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> day : schedule.getTimetable().entrySet()) {
+            List<Object> periods = new ArrayList<>(day.getValue().size());
+            for (String subject : day.getValue()) {
+                if (subject == null) {
+                    periods.add(null); // free period
+                    continue;
+                }
+                Map<String, Object> period = new LinkedHashMap<>();
+                period.put("subject", subject);
+                period.put("shortName", schedule.getSubjectShortNameMap().get(subject));
+                period.put("code", schedule.getSubjectCodeMap().get(subject));
+                period.put("staff", schedule.getSubjectStaffMap().get(subject));
+                periods.add(period);
+            }
+            timetable.put(day.getKey(), periods);
+        }
+        section.put("timetable", timetable);
+        return section;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, Object> body) {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            // The client went away; nothing left to answer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", message);
+        return error;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value, String name) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException(name + " must be a JSON object.");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> array(Object value, String name) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException(name + " must be a JSON array.");
+        }
+        return (List<Object>) value;
+    }
+
+    private static String text(Map<String, Object> object, String name, boolean required) {
+        Object value = object.get(name);
+        if (value == null && !required) {
+            return null;
+        }
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new IllegalArgumentException(name + " must be a non-empty string.");
+        }
+        return ((String) value).trim();
+    }
+
+    private static long number(Map<String, Object> object, String name, long defaultValue) {
+        Object value = object.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Long)) {
+            throw new IllegalArgumentException(name + " must be a whole number.");
+        }
+        return (Long) value;
+    }
+
+    private static int integer(Map<String, Object> object, String name, int defaultValue) {
+        long value = number(object, name, defaultValue);
+        if (value != (int) value) {
+            throw new IllegalArgumentException(name + " is out of range.");
+        }
+        return (int) value;
+    }
+
+    /** One request's search on a solver thread; completes {@link #result} with the response body. */
+    private static final class SolveJob implements Runnable {
+        final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        private final Department department;
+        private final GAConfig config;
+
+        SolveJob(Department department, GAConfig config) {
+            this.department = department;
+            this.config = config;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(solve(department, config));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        // For a job that was still queued when the service stopped
+        void refuse() {
+            result.completeExceptionally(new RejectedExecutionException("The service is stopping."));
+        }
+    }
+
+    private static final class BodyTooLargeException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException() {
+            super("The request is larger than " + MAX_BODY_BYTES + " bytes.");
+        }
+    }
+}
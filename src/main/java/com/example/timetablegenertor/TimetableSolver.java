@@ -0,0 +1,44 @@
+package com.example.timetablegenertor;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A way of generating the timetable of one section. Every engine reads the staff already booked
+ * by earlier sections from the global "day:period" -> staff map, avoids them, and books its own
+ * schedule into the map, so engines can be swapped per department without changing the callers.
+ */
+@FunctionalInterface
+interface TimetableSolver {
+
+    /** Generates the schedule of one section, or returns null if the engine proves there is none. */
+    TimeTableGenerator.Schedule solve(SectionInput input, Map<String, Set<String>> globalStaffSchedule);
+
+    /** The population-based genetic algorithm ({@link TimeTableGenerator#runGA}). */
+    static TimetableSolver genetic(GAConfig config) {
+        return (input, globalStaffSchedule) -> TimeTableGenerator.runGA(input, globalStaffSchedule, config).getSchedule();
+    }
+
+    /** Several genetic algorithm populations evolved in parallel ({@link IslandModelGA}). */
+    static TimetableSolver islands(GAConfig config) {
+        return (input, globalStaffSchedule) ->
+                TimeTableGenerator.runIslandGA(input, globalStaffSchedule, config).getSchedule();
+    }
+
+    /** Simulated annealing with swap and lab block moves ({@link SimulatedAnnealing}). */
+    static TimetableSolver simulatedAnnealing(GAConfig config) {
+        return (input, globalStaffSchedule) ->
+                TimeTableGenerator.runSimulatedAnnealing(input, globalStaffSchedule, config).getSchedule();
+    }
+
+    /** Tabu search with swap and lab block moves ({@link TabuSearch}). */
+    static TimetableSolver tabuSearch(GAConfig config) {
+        return (input, globalStaffSchedule) ->
+                TimeTableGenerator.runTabuSearch(input, globalStaffSchedule, config).getSchedule();
+    }
+
+    /** Backtracking search for a schedule without hard violations ({@link ExactSolver}). */
+    static TimetableSolver exact() {
+        return TimeTableGenerator::solveExact;
+    }
+}
@@ -0,0 +1,384 @@
+package com.example.timetablegenertor;
+
+import java.util.*;
+
+/**
+ * Seeded generator of synthetic departments for scale testing, so large inputs no longer have to
+ * be typed into the console prompts or the subject form. The same settings and seed always give
+ * the same department.
+ * <p>
+ * Every programme has the configured number of years and every year the configured number of
+ * sections. The sections of a year follow one curriculum: a few labs of two periods up to half a
+ * day, and theory subjects of two to six periods (never more than the daily cap allows),
+ * together filling the week exactly. Each subject of each section gets a staff member: with
+ * probability {@link #setStaffOverlap staffOverlap} someone who already teaches in another year,
+ * otherwise the member teaching that subject in the year's earlier sections, or a new one once
+ * that member is full. No staff member is given more than {@link #setMaxStaffLoad maxStaffLoad}
+ * periods a week.
+ * <p>
+ * With {@link Infeasibility#NONE} every section passes the per-section checks and no staff member
+ * is booked for more periods than the week has; the other values break one rule on purpose.
+ * Generation takes time linear in the number of sections.
+ */
+public class WorkloadGenerator {
+
+    /** Ways to make a generated department impossible to timetable. */
+    public enum Infeasibility {
+        /** A department that should be timetabled without hard violations. */
+        NONE,
+        /** The first year of the first programme needs one period more than the week has. */
+        WEEK_OVERFLOW,
+        /** The first year of the first programme has a lab longer than a day. */
+        LAB_LONGER_THAN_DAY,
+        /** The first year of the first programme has a theory subject that cannot stay under the daily cap. */
+        THEORY_OVER_DAILY_CAP,
+        /** One staff member teaches every subject of the first two sections, more periods than the week has. */
+        STAFF_OVERBOOKED
+    }
+
+    private static final int MIN_THEORY_PERIODS = 2;
+    private static final int MAX_THEORY_PERIODS = 6;
+    // Random staff looked at before an overlapping subject falls back to a staff member of its own year
+    private static final int OVERLAP_PROBES = 8;
+
+    private long seed = 1;
+    private TimetableCalendar calendar = TimetableCalendar.STANDARD;
+    private int programmes = 1;
+    private int years = 3;
+    private int sectionsPerYear = 2;
+    private int labsPerYear = 2;
+    private double staffOverlap = 0.2;
+    private int maxStaffLoad;      // 0 means half the week
+    private Infeasibility infeasibility = Infeasibility.NONE;
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public WorkloadGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public TimetableCalendar getCalendar() {
+        return calendar;
+    }
+
+    public WorkloadGenerator setCalendar(TimetableCalendar calendar) {
+        if (calendar == null) {
+            throw new IllegalArgumentException("Calendar cannot be null.");
+        }
+        this.calendar = calendar;
+        return this;
+    }
+
+    public int getProgrammes() {
+        return programmes;
+    }
+
+    public WorkloadGenerator setProgrammes(int programmes) {
+        if (programmes < 1) {
+            throw new IllegalArgumentException("Programmes must be at least 1.");
+        }
+        this.programmes = programmes;
+        return this;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    /** Years per programme. */
+    public WorkloadGenerator setYears(int years) {
+        if (years < 1) {
+            throw new IllegalArgumentException("Years must be at least 1.");
+        }
+        this.years = years;
+        return this;
+    }
+
+    public int getSectionsPerYear() {
+        return sectionsPerYear;
+    }
+
+    public WorkloadGenerator setSectionsPerYear(int sectionsPerYear) {
+        if (sectionsPerYear < 1) {
+            throw new IllegalArgumentException("Sections per year must be at least 1.");
+        }
+        this.sectionsPerYear = sectionsPerYear;
+        return this;
+    }
+
+    public int getLabsPerYear() {
+        return labsPerYear;
+    }
+
+    /** Labs in each year's curriculum, at most one per day of the calendar. */
+    public WorkloadGenerator setLabsPerYear(int labsPerYear) {
+        if (labsPerYear < 0) {
+            throw new IllegalArgumentException("Labs per year cannot be negative.");
+        }
+        this.labsPerYear = labsPerYear;
+        return this;
+    }
+
+    public double getStaffOverlap() {
+        return staffOverlap;
+    }
+
+    /**
+     * Probability that a subject is taught by a staff member who also teaches in another year
+     * (of any programme). 0 keeps every year's staff separate; higher values couple the sections
+     * more tightly and make clashes harder to avoid.
+     */
+    public WorkloadGenerator setStaffOverlap(double staffOverlap) {
+        if (!(staffOverlap >= 0 && staffOverlap <= 1)) {
+            throw new IllegalArgumentException("Staff overlap must be between 0 and 1.");
+        }
+        this.staffOverlap = staffOverlap;
+        return this;
+    }
+
+    /** Most periods a week given to one staff member; 0 (the default) means half the week. */
+    public int getMaxStaffLoad() {
+        return maxStaffLoad;
+    }
+
+    public WorkloadGenerator setMaxStaffLoad(int maxStaffLoad) {
+        if (maxStaffLoad < 0) {
+            throw new IllegalArgumentException("Max staff load cannot be negative.");
+        }
+        this.maxStaffLoad = maxStaffLoad;
+        return this;
+    }
+
+    public Infeasibility getInfeasibility() {
+        return infeasibility;
+    }
+
+    public WorkloadGenerator setInfeasibility(Infeasibility infeasibility) {
+        if (infeasibility == null) {
+            throw new IllegalArgumentException("Infeasibility cannot be null.");
+        }
+        this.infeasibility = infeasibility;
+        return this;
+    }
+
+    /** Sections the generated department will have. */
+    public int getSectionCount() {
+        return programmes * years * sectionsPerYear;
+    }
+
+    public Department generate() {
+        checkSettings();
+        SplittableRandom rng = new SplittableRandom(seed);
+        int cells = calendar.getCells();
+        int load = maxStaffLoad > 0 ? Math.min(maxStaffLoad, cells) : Math.max(1, cells / 2);
+        StaffPool staff = new StaffPool(load);
+        int overbooked = infeasibility == Infeasibility.STAFF_OVERBOOKED ? staff.add(-1) : -1;
+
+        Department department = new Department(calendar);
+        int yearKey = 0;
+        for (int p = 1; p <= programmes; p++) {
+            String programme = "Programme " + p;
+            for (int y = 1; y <= years; y++, yearKey++) {
+                Curriculum curriculum = curriculum(rng, "P" + p + "Y" + y, yearKey == 0);
+                int[] subjectStaff = new int[curriculum.periods.length]; // staff of the year's earlier sections
+                Arrays.fill(subjectStaff, -1);
+                for (int s = 0; s < sectionsPerYear; s++) {
+                    Map<String, String> subjectStaffMap = new HashMap<>();
+                    for (int subject = 0; subject < curriculum.periods.length; subject++) {
+                        int periods = curriculum.periods[subject];
+                        int member;
+                        if (overbooked >= 0 && staff.load(overbooked) <= cells) {
+                            member = overbooked;
+                        } else {
+                            member = rng.nextDouble() < staffOverlap ? staff.fromOtherYear(yearKey, periods, rng) : -1;
+                            if (member < 0) {
+                                if (subjectStaff[subject] < 0 || !staff.fits(subjectStaff[subject], periods)) {
+                                    subjectStaff[subject] = staff.add(yearKey);
+                                }
+                                member = subjectStaff[subject];
+                            }
+                        }
+                        staff.book(member, periods);
+                        subjectStaffMap.put(curriculum.names[subject], staff.name(member));
+                    }
+                    department.addSection(programme, "Year " + y, sectionName(s), curriculum.subjectsWithPeriods,
+                            subjectStaffMap, curriculum.isLabMap, curriculum.shortNames, curriculum.codes);
+                }
+            }
+        }
+        return department;
+    }
+
+    private void checkSettings() {
+        if (labsPerYear > calendar.getDays()) {
+            throw new IllegalArgumentException("Labs per year cannot exceed the " + calendar.getDays()
+                    + " days of the calendar.");
+        }
+        int periodsPerDay = calendar.getPeriodsPerDay();
+        int theoryCap = TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY * calendar.getDays();
+        int labPeriods = labsPerYear * Math.max(1, calendar.midPeriod());
+        if (labPeriods >= calendar.getCells()) {
+            throw new IllegalArgumentException("The labs leave no room for theory in a " + calendar + " week.");
+        }
+        switch (infeasibility) {
+            case LAB_LONGER_THAN_DAY:
+                if (labsPerYear == 0 || calendar.getDays() < 2 || labPeriods + periodsPerDay >= calendar.getCells()) {
+                    throw new IllegalArgumentException("A lab longer than a day needs at least one lab and two days "
+                            + "with room left for theory.");
+                }
+                break;
+            case THEORY_OVER_DAILY_CAP:
+                if (labPeriods + theoryCap + 1 > calendar.getCells()) {
+                    throw new IllegalArgumentException("A " + calendar + " week has no room for a theory subject of "
+                            + (theoryCap + 1) + " periods.");
+                }
+                break;
+            case STAFF_OVERBOOKED:
+                if (getSectionCount() < 2) {
+                    throw new IllegalArgumentException("Overbooking a staff member needs at least two sections.");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // The subjects of one year; the first year carries the configured rule breach, if it is a curriculum one
+    private Curriculum curriculum(SplittableRandom rng, String prefix, boolean first) {
+        int periodsPerDay = calendar.getPeriodsPerDay();
+        int maxLab = Math.max(1, calendar.midPeriod());
+        int maxTheory = Math.min(MAX_THEORY_PERIODS,
+                TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY * calendar.getDays());
+        List<Integer> labs = new ArrayList<>();
+        for (int lab = 0; lab < labsPerYear; lab++) {
+            labs.add(Math.min(maxLab, 2 + rng.nextInt(Math.max(1, maxLab - 1))));
+        }
+        List<Integer> theory = new ArrayList<>();
+        int left = calendar.getCells();
+        for (int lab : labs) {
+            left -= lab;
+        }
+        if (first && infeasibility == Infeasibility.LAB_LONGER_THAN_DAY) {
+            left -= periodsPerDay + 1 - labs.get(0);
+            labs.set(0, periodsPerDay + 1);
+        }
+        if (first && infeasibility == Infeasibility.THEORY_OVER_DAILY_CAP) {
+            int periods = TimeTableGenerator.MAX_PERIODS_PER_THEORY_SUBJECT_PER_DAY * calendar.getDays() + 1;
+            theory.add(periods);
+            left -= periods;
+        }
+        while (left > 0) {
+            int periods = Math.min(left, MIN_THEORY_PERIODS + rng.nextInt(maxTheory - MIN_THEORY_PERIODS + 1));
+            if (left - periods == 1) {
+                // Avoid a one-period straggler: take it now, or leave two for the next subject
+                periods = periods < maxTheory ? periods + 1 : periods - 1;
+            }
+            theory.add(periods);
+            left -= periods;
+        }
+        if (first && infeasibility == Infeasibility.WEEK_OVERFLOW) {
+            int last = theory.size() - 1;
+            theory.set(last, theory.get(last) + 1);
+            if (theory.get(last) > maxTheory) {
+                theory.set(last, theory.get(last) - MIN_THEORY_PERIODS);
+                theory.add(MIN_THEORY_PERIODS);
+            }
+        }
+
+        Curriculum curriculum = new Curriculum(labs.size() + theory.size());
+        int subject = 0;
+        for (int i = 0; i < labs.size(); i++) {
+            curriculum.add(subject++, prefix + " Lab " + (i + 1), "L" + (i + 1), prefix + "-L" + (i + 1),
+                    labs.get(i), true);
+        }
+        for (int i = 0; i < theory.size(); i++) {
+            curriculum.add(subject++, prefix + " Theory " + (i + 1), "T" + (i + 1), prefix + "-T" + (i + 1),
+                    theory.get(i), false);
+        }
+        return curriculum;
+    }
+
+    // A, B, ..., Z, AA, AB, ...
+    private static String sectionName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            name.insert(0, (char) ('A' + i % 26));
+        }
+        return name.toString();
+    }
+
+    /** The subject maps of one year, shared by all of its sections. */
+    private static final class Curriculum {
+        private final String[] names;
+        private final int[] periods;
+        private final Map<String, Integer> subjectsWithPeriods = new LinkedHashMap<>();
+        private final Map<String, Boolean> isLabMap = new HashMap<>();
+        private final Map<String, String> shortNames = new HashMap<>();
+        private final Map<String, String> codes = new HashMap<>();
+
+        Curriculum(int subjects) {
+            names = new String[subjects];
+            periods = new int[subjects];
+        }
+
+        void add(int subject, String name, String shortName, String code, int periods, boolean lab) {
+            this.names[subject] = name;
+            this.periods[subject] = periods;
+            subjectsWithPeriods.put(name, periods);
+            isLabMap.put(name, lab);
+            shortNames.put(name, shortName);
+            codes.put(name, code);
+        }
+    }
+
+    /** Staff members with their weekly load and the year they were hired for. */
+    private static final class StaffPool {
+        private final int maxLoad;
+        private int[] load = new int[64];
+        private int[] year = new int[64];
+        private int size;
+
+        StaffPool(int maxLoad) {
+            this.maxLoad = maxLoad;
+        }
+
+        int add(int yearKey) {
+            if (size == load.length) {
+                load = Arrays.copyOf(load, size * 2);
+                year = Arrays.copyOf(year, size * 2);
+            }
+            year[size] = yearKey;
+            return size++;
+        }
+
+        boolean fits(int member, int periods) {
+            return load[member] + periods <= maxLoad;
+        }
+
+        int load(int member) {
+            return load[member];
+        }
+
+        void book(int member, int periods) {
+            load[member] += periods;
+        }
+
+        // A random staff member of another year with room for the periods, or -1 if a few probes find none
+        int fromOtherYear(int yearKey, int periods, SplittableRandom rng) {
+            for (int probe = 0; probe < OVERLAP_PROBES && size > 0; probe++) {
+                int member = rng.nextInt(size);
+                if (year[member] != yearKey && fits(member, periods)) {
+                    return member;
+                }
+            }
+            return -1;
+        }
+
+        String name(int member) {
+            return String.format("Staff %04d", member + 1);
+        }
+    }
+}
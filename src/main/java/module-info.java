@@ -2,6 +2,9 @@ module com.example.timetablegenertor {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires java.management;
+    requires jdk.management;
+    requires jdk.httpserver;
     requires org.apache.poi.ooxml;
 
 
@@ -0,0 +1,113 @@
+package com.example.timetablegenertor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchGeneratorTest {
+
+    private static final String HEADER = "programme,year,section,subject,short_name,code,periods,type,staff";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void splitsQuotedFields() {
+        assertEquals(Arrays.asList("a", "b", "c"), BatchGenerator.splitCsv("a, b ,c"));
+        assertEquals(Arrays.asList("x, y", "say \"hi\"", ""), BatchGenerator.splitCsv("\"x, y\",\"say \"\"hi\"\"\","));
+        assertEquals(Arrays.asList("", "", ""), BatchGenerator.splitCsv(",,"));
+        assertEquals(Collections.singletonList(""), BatchGenerator.splitCsv(""));
+    }
+
+    @Test
+    void readsSectionsSharingARow() throws IOException {
+        Path file = csv("department.csv", HEADER,
+                "# comment",
+                "",
+                "CSE,2nd Year,Section A|Section B,\"Maths, Discrete\",DM,CS201,4,theory,Anu",
+                "CSE,2nd Year,Section A,Networks Lab,NL,CS202,3,LAB,Bala");
+
+        Department department = BatchGenerator.readCsv(file, TimetableCalendar.STANDARD);
+
+        assertEquals(2, department.size());
+        SectionInput a = department.getSections().get(0);
+        assertEquals("CSE", a.getProgramme());
+        assertEquals("Section A", a.getSection());
+        assertEquals(Integer.valueOf(4), a.getSubjectsWithPeriods().get("Maths, Discrete"));
+        assertEquals(Boolean.TRUE, a.getIsLabMap().get("Networks Lab"));
+        assertEquals(Collections.singleton("Maths, Discrete"),
+                department.getSections().get(1).getSubjectsWithPeriods().keySet());
+    }
+
+    @Test
+    void reportsTheFileAndLineOfBadRows() throws IOException {
+        assertCsvRejected(":2: expected 9 fields, found 3.", HEADER, "CSE,2nd Year,Section A");
+        assertCsvRejected(":2: type must be 'theory' or 'lab', not 'practical'.",
+                HEADER, "CSE,2nd Year,Section A,Maths,M,C1,4,practical,Anu");
+        assertCsvRejected(":3: periods must be a whole number, not 'four'.",
+                HEADER, "CSE,2nd Year,Section A,Maths,M,C1,4,theory,Anu", "CSE,2nd Year,Section A,Physics,P,C2,four,theory,Bala");
+        assertCsvRejected(":3: Duplicate subject Maths in 2nd Year - Section A.",
+                HEADER, "CSE,2nd Year,Section A,Maths,M,C1,4,theory,Anu", "CSE,2nd Year,Section A,Maths,M,C1,4,theory,Bala");
+        assertCsvRejected(":2: Subject Maths needs at least one period.",
+                HEADER, "CSE,2nd Year,Section A,Maths,M,C1,0,theory,Anu");
+        assertCsvRejected(":1: Staff name cannot be empty for Maths.", "CSE,2nd Year,Section A,Maths,M,C1,4,theory,");
+        assertCsvRejected(" has no subjects.", HEADER, "# nothing here");
+    }
+
+    @Test
+    void badArgumentsExitWithTheUsageCode() throws IOException {
+        Path file = csv("department.csv", HEADER, "CSE,2nd Year,Section A,Maths,M,C1,4,theory,Anu");
+
+        assertEquals(BatchGenerator.EXIT_USAGE, BatchGenerator.run(new String[0]));
+        assertEquals(BatchGenerator.EXIT_USAGE, BatchGenerator.run(new String[] {"--colour", "red", file.toString()}));
+        assertEquals(BatchGenerator.EXIT_USAGE, BatchGenerator.run(new String[] {file.toString(), "--seed"}));
+        assertEquals(BatchGenerator.EXIT_USAGE, BatchGenerator.run(new String[] {"--workers", "two", file.toString()}));
+        assertEquals(BatchGenerator.EXIT_USAGE, BatchGenerator.run(new String[] {directory.resolve("missing.csv").toString()}));
+    }
+
+    @Test
+    void infeasibleInputExitsWithTheInfeasibleCode() throws IOException {
+        // 50 theory periods cannot fit in a 40-period week
+        Path file = csv("department.csv", HEADER, "CSE,2nd Year,Section A,Maths,M,C1,50,theory,Anu");
+
+        assertEquals(BatchGenerator.EXIT_INFEASIBLE, BatchGenerator.run(new String[] {file.toString()}));
+    }
+
+    @Test
+    void generatedTimetablesAreWrittenPerSection() throws IOException {
+        Path file = csv("department.csv", HEADER,
+                "CSE,2nd Year,Section A|Section B,Maths,M,C1,6,theory,Anu",
+                "CSE,2nd Year,Section A|Section B,Physics,P,C2,4,theory,Bala");
+        Path out = directory.resolve("out");
+
+        int exitCode = BatchGenerator.run(new String[] {"--seed", "1", "--workers", "2", "--time-limit", "5000",
+                "--out-dir", out.toString(), file.toString()});
+
+        assertEquals(BatchGenerator.EXIT_OK, exitCode);
+        try (Stream<Path> files = Files.list(out)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private void assertCsvRejected(String message, String... lines) throws IOException {
+        Path file = csv("bad.csv", lines);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BatchGenerator.readCsv(file, TimetableCalendar.STANDARD));
+        assertEquals(file + message, e.getMessage());
+    }
+
+    private Path csv(String name, String... lines) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
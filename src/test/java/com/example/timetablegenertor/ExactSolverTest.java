@@ -0,0 +1,73 @@
+package com.example.timetablegenertor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactSolverTest {
+
+    @Test
+    void solvesAFeasibleSection() {
+        SubjectIndex index = HillClimberTest.section().toIndex();
+
+        byte[] genes = ExactSolver.solve(index);
+
+        assertNotNull(genes);
+        TimeTableGenerator.Schedule schedule = new TimeTableGenerator.Schedule(genes, index);
+        assertEquals(0, schedule.countHardViolations());
+        for (int subject = 1; subject <= index.size(); subject++) {
+            int placed = 0;
+            for (byte gene : genes) {
+                if ((gene & 0xFF) == subject) placed++;
+            }
+            assertEquals(index.periods(subject), placed, index.name(subject));
+        }
+    }
+
+    @Test
+    void provesAnInfeasibleSectionHasNoSolution() {
+        // Six labs of five periods each need a day of their own, but the week has five
+        Map<String, Integer> periods = new LinkedHashMap<>();
+        Map<String, String> staff = new HashMap<>();
+        Map<String, Boolean> lab = new HashMap<>();
+        for (int i = 1; i <= 6; i++) {
+            periods.put("Lab " + i, 5);
+            staff.put("Lab " + i, "Staff " + i);
+            lab.put("Lab " + i, true);
+        }
+        SectionInput input = new SectionInput("1st Year", "Section A", periods, staff, lab,
+                new HashMap<>(staff), new HashMap<>(staff));
+        SubjectIndex index = input.toIndex();
+        // Every subject fits the week on its own, so only the search can tell
+        ConstructiveInitializer.checkFeasible(index);
+
+        long[] nodes = new long[1];
+        assertNull(ExactSolver.solve(index, nodes));
+        assertTrue(nodes[0] > 0);
+        assertNull(TimeTableGenerator.solveExact(input, new HashMap<>()));
+    }
+
+    @Test
+    void avoidsStaffBookedByAnotherSection() {
+        SectionInput input = HillClimberTest.section();
+        Map<String, Set<String>> globalStaffSchedule = new HashMap<>();
+        TimeTableGenerator.Schedule first = TimeTableGenerator.solveExact(input, globalStaffSchedule);
+        assertNotNull(first);
+
+        // The same staff in a second section: the solution must not reuse any of the first one's periods
+        SubjectIndex index = input.toIndex();
+        TimeTableGenerator.loadStaffBusy(index, globalStaffSchedule);
+        byte[] genes = ExactSolver.solve(index);
+
+        assertNotNull(genes);
+        assertEquals(0, new TimeTableGenerator.Schedule(genes, index).countHardViolations());
+        for (int cell = 0; cell < genes.length; cell++) {
+            int subject = genes[cell] & 0xFF;
+            if (subject != SubjectIndex.FREE) {
+                assertFalse(index.isBusy(index.staff(subject), cell), "cell " + cell);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.timetablegenertor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HillClimberTest {
+
+    @Test
+    void swapDeltasMatchAFullRescore() {
+        SubjectIndex index = section().toIndex();
+        // Some periods in which the staff teach elsewhere, so the busy rule has something to count
+        for (int cell = 0; cell < index.calendar().getCells(); cell += 3) {
+            index.addStaffBusy(cell % index.staffCount(), cell);
+        }
+        Random rng = new Random(11);
+        HillClimber climber = new HillClimber(index, new GAConfig());
+        int checked = 0;
+        for (int round = 0; round < 5; round++) {
+            TimeTableGenerator.Schedule schedule = new TimeTableGenerator.Schedule(shuffled(index, rng), index);
+            // Climbing loads the climber's per-day counts for the schedule and keeps them in step with its swaps
+            climber.climb(schedule);
+            byte[] genes = schedule.getGenes();
+            double fitness = schedule.getFitness();
+            int hardViolations = schedule.countHardViolations();
+            for (int a = 0; a < genes.length; a++) {
+                for (int b = a + 1; b < genes.length; b++) {
+                    int subjectA = genes[a] & 0xFF;
+                    int subjectB = genes[b] & 0xFF;
+                    if (subjectA == subjectB || isLab(index, subjectA) || isLab(index, subjectB)) continue;
+                    byte[] swapped = genes.clone();
+                    swapped[a] = (byte) subjectB;
+                    swapped[b] = (byte) subjectA;
+                    TimeTableGenerator.Schedule rescored = new TimeTableGenerator.Schedule(swapped, index);
+
+                    assertEquals(rescored.getFitness() - fitness, climber.swapDelta(a, subjectA, b, subjectB), 1e-9,
+                            "fitness change of swapping " + a + " and " + b);
+                    assertEquals(rescored.countHardViolations() - hardViolations,
+                            climber.swapHardDelta(a, subjectA, b, subjectB),
+                            "hard violation change of swapping " + a + " and " + b);
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    void climbingNeverLowersTheScore() {
+        SubjectIndex index = section().toIndex();
+        Random rng = new Random(5);
+        HillClimber climber = new HillClimber(index, new GAConfig());
+        for (int round = 0; round < 10; round++) {
+            TimeTableGenerator.Schedule schedule = new TimeTableGenerator.Schedule(shuffled(index, rng), index);
+            long before = schedule.getScore();
+            boolean improved = climber.climb(schedule);
+
+            long after = new TimeTableGenerator.Schedule(schedule.getGenes().clone(), index).getScore();
+            assertEquals(after, schedule.getScore(), "cached score after the climb");
+            assertTrue(improved ? after > before : after == before);
+        }
+    }
+
+    // Two theory subjects share a staff member, so swaps can change staff repeats as well
+    static SectionInput section() {
+        Map<String, Integer> periods = new LinkedHashMap<>();
+        Map<String, String> staff = new HashMap<>();
+        Map<String, Boolean> lab = new HashMap<>();
+        Map<String, String> shortNames = new HashMap<>();
+        Map<String, String> codes = new HashMap<>();
+        String[][] subjects = {
+                {"Maths", "6", "false", "Anu"},
+                {"Physics", "5", "false", "Bala"},
+                {"Chemistry", "5", "false", "Anu"},
+                {"English", "4", "false", "Chitra"},
+                {"Physics Lab", "3", "true", "Bala"},
+                {"Programming Lab", "4", "true", "Devi"},
+        };
+        for (String[] subject : subjects) {
+            periods.put(subject[0], Integer.parseInt(subject[1]));
+            lab.put(subject[0], Boolean.parseBoolean(subject[2]));
+            staff.put(subject[0], subject[3]);
+            shortNames.put(subject[0], subject[0].substring(0, 3).toUpperCase(Locale.ROOT));
+            codes.put(subject[0], "C" + subject[0].length());
+        }
+        return new SectionInput("1st Year", "Section A", periods, staff, lab, shortNames, codes);
+    }
+
+    // Every required period placed in a random cell, labs included, with the rest of the week free
+    private static byte[] shuffled(SubjectIndex index, Random rng) {
+        List<Byte> cells = new ArrayList<>();
+        for (int subject = 1; subject <= index.size(); subject++) {
+            for (int p = 0; p < index.periods(subject); p++) {
+                cells.add((byte) subject);
+            }
+        }
+        while (cells.size() < index.calendar().getCells()) {
+            cells.add((byte) SubjectIndex.FREE);
+        }
+        Collections.shuffle(cells, rng);
+        byte[] genes = new byte[cells.size()];
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = cells.get(i);
+        }
+        return genes;
+    }
+
+    private static boolean isLab(SubjectIndex index, int subject) {
+        return subject != SubjectIndex.FREE && index.isLab(subject);
+    }
+}
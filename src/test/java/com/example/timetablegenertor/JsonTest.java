@@ -0,0 +1,78 @@
+package com.example.timetablegenertor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void parsesNestedValues() {
+        Map<?, ?> object = (Map<?, ?>) Json.parse(" {\"a\": [1, -2.5, true, null], \"b\": {\"c\": \"d\"}, \"e\": 1e3} ");
+
+        assertEquals(Arrays.asList(1L, -2.5, true, null), object.get("a"));
+        assertEquals(Collections.singletonMap("c", "d"), object.get("b"));
+        assertEquals(1000.0, object.get("e"));
+        assertEquals(Arrays.asList("a", "b", "e"), new ArrayList<>(object.keySet()));
+        assertEquals(Collections.emptyMap(), Json.parse("{}"));
+        assertEquals(Collections.emptyList(), Json.parse("[ ]"));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("a\"b\\c/d\ne\tf\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\ne\\tf\\u00e9\""));
+    }
+
+    @Test
+    void writtenValuesParseBack() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "quote \" backslash \\ newline \n control \u0001");
+        value.put("numbers", Arrays.asList(3L, 0.25, -7L));
+        value.put("flag", false);
+        value.put("missing", null);
+
+        assertEquals(value, Json.parse(Json.write(value)));
+        assertEquals("[null,null]", Json.write(Arrays.asList(Double.NaN, Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertRejected("", "Unexpected end of JSON");
+        assertRejected("[1,]", "Unexpected character ']'");
+        assertRejected("{\"a\":1,}", "Expected a field name");
+        assertRejected("{\"a\":1,\"a\":2}", "Duplicate field \"a\"");
+        assertRejected("\"open", "Unterminated string");
+        assertRejected("\"\\x\"", "Invalid escape \\x");
+        assertRejected("\"\\u12zz\"", "Invalid unicode escape");
+        assertRejected("\"\\u12", "Incomplete unicode escape");
+        assertRejected("\"tab\there\"", "Control character in string");
+        assertRejected("1.2.3", "Invalid number 1.2.3");
+        assertRejected("nul", "Unexpected character 'n'");
+        assertRejected("{} {}", "Unexpected content after the JSON value");
+    }
+
+    @Test
+    void errorsNameTheOffset() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.parse("[1, 2 3]"));
+        assertEquals("Expected ']' at offset 6.", e.getMessage());
+    }
+
+    @Test
+    void limitsNesting() {
+        // The outermost value is depth 0, so 65 arrays reach the deepest allowed level
+        assertNotNull(Json.parse(nested(65)));
+        assertRejected(nested(66), "JSON nested too deeply");
+        assertRejected(nested(100_000), "JSON nested too deeply");
+    }
+
+    private static String nested(int depth) {
+        return "[".repeat(depth) + "]".repeat(depth);
+    }
+
+    private static void assertRejected(String text, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.parse(text));
+        assertTrue(e.getMessage().startsWith(message + " at offset "), e.getMessage());
+    }
+}
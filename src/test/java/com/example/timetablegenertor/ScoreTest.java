@@ -0,0 +1,40 @@
+package com.example.timetablegenertor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreTest {
+
+    @Test
+    void fewerHardViolationsOutrankAnyFitness() {
+        assertTrue(Score.pack(0, -1000.0) > Score.pack(1, 1000.0));
+        assertTrue(Score.pack(2, 50.0) > Score.pack(3, 60.0));
+    }
+
+    @Test
+    void equalHardViolationsAreRankedByFitness() {
+        assertTrue(Score.pack(1, 10.5) > Score.pack(1, 10.0));
+        assertTrue(Score.pack(0, -2.0) > Score.pack(0, -2.5));
+        assertTrue(Score.pack(0, 0.5) > Score.pack(0, -0.5));
+        assertEquals(Score.pack(4, 7.0), Score.pack(4, 7.0));
+    }
+
+    @Test
+    void packedPartsUnpack() {
+        for (int violations : new int[] {0, 1, 17}) {
+            for (double fitness : new double[] {-123.5, 0.0, 0.5, 42.0}) {
+                long score = Score.pack(violations, fitness);
+                assertEquals(violations, Score.hardViolations(score));
+                assertEquals(fitness, Score.fitness(score), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void outOfRangeFitnessSaturatesInsteadOfWrapping() {
+        assertTrue(Score.pack(0, Double.POSITIVE_INFINITY) > Score.pack(0, 1e6));
+        assertTrue(Score.pack(0, Double.NEGATIVE_INFINITY) < Score.pack(0, -1e6));
+        assertTrue(Score.pack(0, Double.NEGATIVE_INFINITY) > Score.pack(1, Double.POSITIVE_INFINITY));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.timetablegenertor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimetableServiceTest {
+
+    private TimetableService service;
+
+    @BeforeEach
+    void start() throws IOException {
+        service = new TimetableService(new InetSocketAddress("127.0.0.1", 0), 2, 4, 10_000);
+        service.start();
+    }
+
+    @AfterEach
+    void stop() {
+        service.stop();
+    }
+
+    @Test
+    void everySectionOfARequestSearchesWithinItsShareOfTheTimeLimit() throws IOException {
+        Department department = new WorkloadGenerator().setSeed(7).generate();
+        Map<String, Object> request = request(department);
+        request.put("seed", 3L);
+        request.put("timeLimitMillis", 1200L);
+
+        Response response = post("/generate", Json.write(request));
+
+        assertEquals(200, response.status, response.body);
+        List<?> sections = (List<?>) response.json().get("sections");
+        assertEquals(department.size(), sections.size());
+        for (Object element : sections) {
+            Map<?, ?> section = (Map<?, ?>) element;
+            assertTrue(((Number) section.get("generations")).longValue() > 0,
+                    section.get("year") + " - " + section.get("section") + " stopped at generation 0 ("
+                            + section.get("stopReason") + ")");
+        }
+    }
+
+    @Test
+    void generatesATimetableForOneSection() throws IOException {
+        Department department = new Department().addSection(HillClimberTest.section());
+        Map<String, Object> request = request(department);
+        request.put("seed", 42L);
+        request.put("timeLimitMillis", 2000L);
+
+        Response response = post("/generate", Json.write(request));
+
+        assertEquals(200, response.status, response.body);
+        Map<?, ?> body = response.json();
+        assertEquals(Boolean.TRUE, body.get("feasible"));
+        Map<?, ?> section = (Map<?, ?>) ((List<?>) body.get("sections")).get(0);
+        assertEquals("1st Year", section.get("year"));
+        assertEquals("Section A", section.get("section"));
+        assertEquals(0L, section.get("hardViolations"));
+        assertEquals(42L, section.get("seed"));
+
+        double score = 0;
+        for (Object rule : (List<?>) section.get("breakdown")) {
+            score += ((Number) ((Map<?, ?>) rule).get("score")).doubleValue();
+        }
+        assertEquals(((Number) section.get("fitness")).doubleValue(), score, 1e-9);
+
+        // Every required period of every subject is in the returned week
+        Map<String, Integer> placed = new HashMap<>();
+        Map<?, ?> timetable = (Map<?, ?>) section.get("timetable");
+        assertEquals(department.getCalendar().getDays(), timetable.size());
+        for (Object day : timetable.values()) {
+            for (Object period : (List<?>) day) {
+                if (period != null) placed.merge((String) ((Map<?, ?>) period).get("subject"), 1, Integer::sum);
+            }
+        }
+        assertEquals(department.getSections().get(0).getSubjectsWithPeriods(), placed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectsBadRequests() throws IOException {
+        Map<String, Object> request = request(new Department().addSection(HillClimberTest.section()));
+
+        assertEquals(400, post("/generate", "{\"sections\": [").status);
+        assertEquals(400, post("/generate", "{\"sections\": []}").status);
+        request.put("timeLimitMillis", 0L);
+        assertEquals(400, post("/generate", Json.write(request)).status);
+        assertEquals(405, get("/generate").status);
+        assertEquals(404, get("/other").status);
+
+        // A theory subject with more periods than the week has cannot be timetabled
+        request.put("timeLimitMillis", 1000L);
+        Map<String, Object> section = (Map<String, Object>) ((List<?>) request.get("sections")).get(0);
+        Map<String, Object> subject = (Map<String, Object>) ((List<?>) section.get("subjects")).get(0);
+        subject.put("periods", 50);
+        Response infeasible = post("/generate", Json.write(request));
+        assertEquals(422, infeasible.status, infeasible.body);
+        assertTrue(((String) infeasible.json().get("error")).contains("50 periods"), infeasible.body);
+    }
+
+    @Test
+    void reportsHealth() throws IOException {
+        Response response = get("/health");
+
+        assertEquals(200, response.status);
+        Map<?, ?> health = response.json();
+        assertEquals("ok", health.get("status"));
+        assertEquals(2L, health.get("solvers"));
+        assertEquals(4L, health.get("queueCapacity"));
+    }
+
+    // The request body for a department, in the service's JSON format
+    static Map<String, Object> request(Department department) {
+        List<Object> sections = new ArrayList<>();
+        for (SectionInput input : department.getSections()) {
+            List<Object> subjects = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : input.getSubjectsWithPeriods().entrySet()) {
+                Map<String, Object> subject = new LinkedHashMap<>();
+                subject.put("name", entry.getKey());
+                subject.put("periods", entry.getValue());
+                subject.put("lab", input.getIsLabMap().get(entry.getKey()));
+                subject.put("staff", input.getSubjectStaffMap().get(entry.getKey()));
+                subjects.add(subject);
+            }
+            Map<String, Object> section = new LinkedHashMap<>();
+            section.put("programme", input.getProgramme());
+            section.put("year", input.getYear());
+            section.put("section", input.getSection());
+            section.put("subjects", subjects);
+            sections.add(section);
+        }
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("sections", sections);
+        return request;
+    }
+
+    Response post(String path, String body) throws IOException {
+        HttpURLConnection connection = open(path);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return Response.of(connection);
+    }
+
+    Response get(String path) throws IOException {
+        return Response.of(open(path));
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL("http://127.0.0.1:" + service.getPort() + path).openConnection();
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response of(HttpURLConnection connection) throws IOException {
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                return new Response(status, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        Map<?, ?> json() {
+            return (Map<?, ?>) Json.parse(body);
+        }
+    }
+}